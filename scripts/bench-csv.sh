@@ -0,0 +1,14 @@
+#!/usr/bin/env bash
+# Compares reading history-shaped CSV rows with the old String.split loop
+# and with CsvReader (scripts/bench/CsvReadBench.java), all in memory, both
+# splitting fields only and building full history records.
+# Usage: bench-csv.sh [rows] [runs]
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+WORK="$(mktemp -d)"
+trap 'rm -rf "$WORK"' EXIT
+
+"$ROOT/scripts/build.sh" > /dev/null
+javac --release 17 -cp "$ROOT/out/classes" -d "$WORK" "$ROOT/scripts/bench/CsvReadBench.java"
+java -cp "$ROOT/out/classes:$WORK" CsvReadBench "${1:-1000000}" "${2:-10}"
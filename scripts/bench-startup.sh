@@ -0,0 +1,50 @@
+#!/usr/bin/env bash
+# Compares cold start (launch to exit at the main menu) and first-operation
+# latency (launch, open Clinic Analytics, exit, minus cold start) for the
+# plain JVM, the AppCDS archive and the native executable when built.
+# Usage: bench-startup.sh [runs]
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+RUNS="${1:-10}"
+WORK="$(mktemp -d)"
+trap 'rm -rf "$WORK"' EXIT
+cp "$ROOT/clinic_data.csv" "$WORK/" 2>/dev/null || true
+cd "$WORK"
+
+# Average wall time in ms of feeding the given menu input to the command
+measure() {
+    local input="$1"; shift
+    local total=0
+    for _ in $(seq "$RUNS"); do
+        local start end
+        start=$(date +%s%N)
+        printf "$input" | "$@" > /dev/null
+        end=$(date +%s%N)
+        total=$((total + (end - start) / 1000000))
+    done
+    echo $((total / RUNS))
+}
+
+report() {
+    local name="$1"; shift
+    local cold first
+    cold=$(measure '9\n' "$@")
+    first=$(measure '8\n9\n' "$@")
+    printf '%-8s cold start %5d ms   first operation %5d ms\n' "$name" "$cold" "$((first - cold))"
+}
+
+JAR="$ROOT/out/clinic.jar"
+[ -f "$JAR" ] || "$ROOT/scripts/build.sh" > /dev/null
+
+report jvm java -Xshare:auto -jar "$JAR"
+if [ -f "$ROOT/out/clinic.jsa" ]; then
+    report cds java -XX:SharedArchiveFile="$ROOT/out/clinic.jsa" -jar "$JAR"
+else
+    echo "cds      skipped (run scripts/build-cds.sh)"
+fi
+if [ -x "$ROOT/out/clinic" ]; then
+    report native "$ROOT/out/clinic"
+else
+    echo "native   skipped (run scripts/build-native.sh)"
+fi
@@ -0,0 +1,112 @@
+import clinic.Models.ClinicHistoryRecord;
+import clinic.Storage.CsvReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+/**
+ * Reads the same history-shaped rows from memory with the old split-based
+ * loop and with CsvReader and prints the median and best time of each after
+ * warming up. "tokenize" only splits rows into fields; "load" also parses the
+ * timestamp and numbers and builds a ClinicHistoryRecord, as loadAllData does.
+ * Usage: java CsvReadBench [rows] [runs]
+ */
+public class CsvReadBench {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String[] DIAGNOSES = {"Flu", "Common cold", "Hypertension", "Sprained ankle", "Migraine"};
+    private static final String[] TREATMENTS = {"Rest and fluids", "Paracetamol", "Amlodipine", "Ice and compression"};
+
+    private static long sink;
+
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        String data = generate(rows);
+
+        for (boolean load : new boolean[] {false, true}) {
+            for (int i = 0; i < 3; i++) {
+                readSplit(data, load);
+                readCsv(data, load);
+            }
+
+            long[] split = new long[runs];
+            long[] csv = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                split[i] = readSplit(data, load);
+                csv[i] = readCsv(data, load);
+            }
+            String mode = load ? "load" : "tokenize";
+            report(mode, "split", split);
+            report(mode, "CsvReader", csv);
+        }
+        System.out.println("(checksum " + sink + ")");
+    }
+
+    private static String generate(int rows) {
+        StringBuilder sb = new StringBuilder(rows * 80);
+        LocalDateTime time = LocalDateTime.of(2024, 1, 1, 8, 0);
+        for (int i = 0; i < rows; i++) {
+            sb.append('P').append(10000000 + i % 50000).append(',')
+              .append(time.plusMinutes(i).format(FORMATTER)).append(',')
+              .append("Dr ").append((char) ('A' + i % 8)).append(',')
+              .append(DIAGNOSES[i % DIAGNOSES.length]).append(',')
+              .append(TREATMENTS[i % TREATMENTS.length]).append(',')
+              .append(1 + i % 5).append(',')
+              .append(i % 120).append('\n');
+        }
+        return sb.toString();
+    }
+
+    // The loop loadAllData used before CsvReader
+    private static long readSplit(String data, boolean load) throws IOException {
+        long start = System.nanoTime();
+        try (BufferedReader br = new BufferedReader(new StringReader(data))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty()) continue;
+                String[] parts = line.split(",", -1);
+                if (!load) {
+                    sink += parts[3].length();
+                    continue;
+                }
+                LocalDateTime time = LocalDateTime.parse(parts[1], FORMATTER);
+                ClinicHistoryRecord r = new ClinicHistoryRecord(time, parts[2], parts[3], parts[4],
+                        Integer.parseInt(parts[5]), Long.parseLong(parts[6]));
+                sink += r.getWaitMinutes() + parts[0].length();
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long readCsv(String data, boolean load) throws IOException {
+        long start = System.nanoTime();
+        try (CsvReader csv = new CsvReader(new StringReader(data))) {
+            while (csv.nextRecord()) {
+                if (csv.isBlank()) continue;
+                if (!load) {
+                    sink += csv.fieldSlice(3).length();
+                    continue;
+                }
+                String id = csv.field(0);
+                LocalDateTime time = LocalDateTime.parse(csv.fieldSlice(1), FORMATTER);
+                ClinicHistoryRecord r = new ClinicHistoryRecord(time, csv.field(2), csv.field(3), csv.field(4),
+                        csv.intField(5), csv.longField(6));
+                sink += r.getWaitMinutes() + id.length();
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void report(String mode, String name, long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%-9s %-10s median %5d ms   best %5d ms%n", mode, name,
+                sorted[sorted.length / 2] / 1_000_000, sorted[0] / 1_000_000);
+    }
+}
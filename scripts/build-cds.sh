@@ -0,0 +1,15 @@
+#!/usr/bin/env bash
+# Builds an AppCDS archive (out/clinic.jsa) from a training run.
+# Start the app with: java -XX:SharedArchiveFile=out/clinic.jsa -jar out/clinic.jar
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+JAR="$ROOT/out/clinic.jar"
+ARCHIVE="$ROOT/out/clinic.jsa"
+
+[ -f "$JAR" ] || "$ROOT/scripts/build.sh"
+
+rm -f "$ARCHIVE"
+"$ROOT/scripts/training-run.sh" java -XX:ArchiveClassesAtExit="$ARCHIVE" -jar "$JAR"
+
+echo "Built $ARCHIVE"
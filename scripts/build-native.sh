@@ -0,0 +1,35 @@
+#!/usr/bin/env bash
+# Builds a GraalVM native executable (out/clinic). Requires GraalVM's java and
+# native-image on PATH.
+#
+# NOT VERIFIED: this native build has not been run yet. The configuration in
+# src/META-INF/native-image/clinic/clinic-management was written by reading
+# the code, not produced by the tracing agent. The app uses no reflection.
+# The only resources it needs are the ICU normalization data that
+# PatientIdentityIndex loads through java.text.Normalizer.
+#
+# The build reads that configuration and native-image.properties from the
+# jar, so it does not depend on local data. Pass --trace first to merge in
+# whatever the tracing agent records during scripts/training-run.sh, then
+# review and commit the result.
+# Usage: build-native.sh [--trace]
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+JAR="$ROOT/out/clinic.jar"
+CONFIG="$ROOT/src/META-INF/native-image/clinic/clinic-management"
+
+command -v native-image > /dev/null || { echo "native-image not found; install GraalVM" >&2; exit 1; }
+
+if [ "${1:-}" = "--trace" ]; then
+    "$ROOT/scripts/build.sh"
+    "$ROOT/scripts/training-run.sh" java -agentlib:native-image-agent=config-merge-dir="$CONFIG" -jar "$JAR"
+    echo "Updated $CONFIG; review and commit the changes"
+fi
+
+# Always repackage so the jar carries the current configuration
+"$ROOT/scripts/build.sh"
+
+native-image -jar "$JAR" -o "$ROOT/out/clinic"
+
+echo "Built $ROOT/out/clinic"
@@ -0,0 +1,14 @@
+#!/usr/bin/env bash
+# Compiles the sources and packages out/clinic.jar (Main-Class clinic.main.Main),
+# including the native-image configuration under src/META-INF.
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+OUT="$ROOT/out"
+
+rm -rf "$OUT/classes"
+mkdir -p "$OUT/classes"
+javac --release 17 -d "$OUT/classes" $(find "$ROOT/src" -name '*.java')
+jar --create --file "$OUT/clinic.jar" --main-class clinic.main.Main -C "$OUT/classes" . -C "$ROOT/src" META-INF
+
+echo "Built $OUT/clinic.jar"
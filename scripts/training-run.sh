@@ -0,0 +1,26 @@
+#!/usr/bin/env bash
+# Drives the menu through check-in, treatment, queue, history, analytics and
+# export so class loading covers the code paths a desk session uses.
+# Usage: training-run.sh <java command...>
+# Runs in a scratch copy of the data so clinic_data.csv is never modified.
+# Set TRAINING_LOG to an absolute path to keep the session output.
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+WORK="$(mktemp -d)"
+trap 'rm -rf "$WORK"' EXIT
+
+cp "$ROOT/clinic_data.csv" "$WORK/" 2>/dev/null || true
+cd "$WORK"
+
+# check in, treat, complete, manage queue, history, doctors, analytics, export, exit
+printf '%s\n' \
+    1 "Training Patient" "" "Checkup, routine" 3 1 \
+    2 "" \
+    6 1 "Healthy" "None" \
+    7 1 2 P00000000 5 \
+    3 0 \
+    4 0 \
+    8 \
+    5 5 training.ndjson.gz "" 8 \
+    9 | "$@" > "${TRAINING_LOG:-/dev/null}"
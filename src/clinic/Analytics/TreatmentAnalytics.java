@@ -0,0 +1,154 @@
+package clinic.Analytics;
+
+import clinic.Models.ClinicHistoryRecord;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Incremental rollups over treatment history. Every record is added to its
+ * hour, day and month bucket, to its doctor (overall and per day) and to its
+ * diagnosis, so dashboard queries are hash lookups that do not depend on how
+ * much history exists. Diagnoses are also kept ranked by count, so the top-N
+ * query reads only the first N entries.
+ */
+public class TreatmentAnalytics {
+
+    private static final TreatmentRollup EMPTY = new TreatmentRollup();
+
+    private final TreatmentRollup overall = new TreatmentRollup();
+    private final HashMap<LocalDateTime, TreatmentRollup> byHour = new HashMap<>();
+    private final HashMap<LocalDate, TreatmentRollup> byDay = new HashMap<>();
+    private final HashMap<YearMonth, TreatmentRollup> byMonth = new HashMap<>();
+    private final HashMap<String, TreatmentRollup> byDoctor = new HashMap<>();
+    private final HashMap<String, HashMap<LocalDate, TreatmentRollup>> byDoctorDay = new HashMap<>();
+    private final HashMap<String, TreatmentRollup> byDiagnosis = new HashMap<>();
+    private final HashMap<String, String> diagnosisLabels = new HashMap<>();
+    // Diagnosis keys ordered by count (highest first); a key is removed before its count changes
+    private final TreeSet<String> diagnosisRanking = new TreeSet<>(
+            Comparator.comparingLong((String key) -> byDiagnosis.get(key).getTreatments())
+                    .reversed()
+                    .thenComparing(Comparator.naturalOrder()));
+
+    /**
+     * Builds rollups for existing history using a parallel stream; each worker
+     * fills its own instance and the partial results are merged.
+     */
+    public static TreatmentAnalytics backfill(Map<String, List<ClinicHistoryRecord>> history) {
+        return history.values().parallelStream()
+                .flatMap(List::stream)
+                .collect(TreatmentAnalytics::new, TreatmentAnalytics::record, TreatmentAnalytics::merge);
+    }
+
+    public void record(ClinicHistoryRecord record) {
+        LocalDateTime time = record.getDateTime();
+        LocalDate day = time.toLocalDate();
+        String doctor = record.getDoctorName();
+        String diagnosisKey = normalizeDiagnosis(record.getDiagnosis());
+
+        overall.record(record);
+        byHour.computeIfAbsent(time.truncatedTo(ChronoUnit.HOURS), k -> new TreatmentRollup()).record(record);
+        byDay.computeIfAbsent(day, k -> new TreatmentRollup()).record(record);
+        byMonth.computeIfAbsent(YearMonth.from(time), k -> new TreatmentRollup()).record(record);
+        byDoctor.computeIfAbsent(doctor, k -> new TreatmentRollup()).record(record);
+        byDoctorDay.computeIfAbsent(doctor, k -> new HashMap<>())
+                .computeIfAbsent(day, k -> new TreatmentRollup()).record(record);
+        rankedDiagnosis(diagnosisKey).record(record);
+        diagnosisRanking.add(diagnosisKey);
+        diagnosisLabels.putIfAbsent(diagnosisKey, record.getDiagnosis().trim());
+    }
+
+    public void merge(TreatmentAnalytics other) {
+        overall.merge(other.overall);
+        mergeBuckets(byHour, other.byHour);
+        mergeBuckets(byDay, other.byDay);
+        mergeBuckets(byMonth, other.byMonth);
+        mergeBuckets(byDoctor, other.byDoctor);
+        for (Map.Entry<String, HashMap<LocalDate, TreatmentRollup>> e : other.byDoctorDay.entrySet()) {
+            mergeBuckets(byDoctorDay.computeIfAbsent(e.getKey(), k -> new HashMap<>()), e.getValue());
+        }
+        for (Map.Entry<String, TreatmentRollup> e : other.byDiagnosis.entrySet()) {
+            rankedDiagnosis(e.getKey()).merge(e.getValue());
+            diagnosisRanking.add(e.getKey());
+        }
+        for (Map.Entry<String, String> e : other.diagnosisLabels.entrySet()) {
+            diagnosisLabels.putIfAbsent(e.getKey(), e.getValue());
+        }
+    }
+
+    // ------------------- QUERIES -------------------
+    // Rollups returned here are live views; empty buckets return an all-zero rollup.
+
+    public TreatmentRollup getOverall() {
+        return overall;
+    }
+
+    public TreatmentRollup getHour(LocalDateTime hour) {
+        return byHour.getOrDefault(hour.truncatedTo(ChronoUnit.HOURS), EMPTY);
+    }
+
+    public TreatmentRollup getDay(LocalDate day) {
+        return byDay.getOrDefault(day, EMPTY);
+    }
+
+    public TreatmentRollup getMonth(YearMonth month) {
+        return byMonth.getOrDefault(month, EMPTY);
+    }
+
+    public TreatmentRollup getDoctor(String doctorName) {
+        return byDoctor.getOrDefault(doctorName, EMPTY);
+    }
+
+    public TreatmentRollup getDoctorDay(String doctorName, LocalDate day) {
+        HashMap<LocalDate, TreatmentRollup> days = byDoctorDay.get(doctorName);
+        return days == null ? EMPTY : days.getOrDefault(day, EMPTY);
+    }
+
+    public long getTreatmentsForDoctorOnDay(String doctorName, LocalDate day) {
+        return getDoctorDay(doctorName, day).getTreatments();
+    }
+
+    public long getDiagnosisCount(String diagnosis) {
+        return byDiagnosis.getOrDefault(normalizeDiagnosis(diagnosis), EMPTY).getTreatments();
+    }
+
+    public Set<String> getDoctorNames() {
+        return Collections.unmodifiableSet(byDoctor.keySet());
+    }
+
+    // Most frequent diagnoses first; reads only the first entries of the count-ordered ranking
+    public List<Map.Entry<String, Long>> getTopDiagnoses(int limit) {
+        List<Map.Entry<String, Long>> top = new ArrayList<>(limit);
+        for (String key : diagnosisRanking) {
+            if (top.size() == limit) break;
+            top.add(new AbstractMap.SimpleImmutableEntry<>(
+                    diagnosisLabels.get(key), byDiagnosis.get(key).getTreatments()));
+        }
+        return top;
+    }
+
+    // Returns the diagnosis rollup, taken out of the ranking so its count can change; callers re-add the key
+    private TreatmentRollup rankedDiagnosis(String key) {
+        TreatmentRollup rollup = byDiagnosis.get(key);
+        if (rollup == null) {
+            rollup = new TreatmentRollup();
+            byDiagnosis.put(key, rollup);
+        } else {
+            diagnosisRanking.remove(key);
+        }
+        return rollup;
+    }
+
+    private static String normalizeDiagnosis(String diagnosis) {
+        return diagnosis.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static <K> void mergeBuckets(Map<K, TreatmentRollup> into, Map<K, TreatmentRollup> from) {
+        for (Map.Entry<K, TreatmentRollup> e : from.entrySet()) {
+            into.computeIfAbsent(e.getKey(), k -> new TreatmentRollup()).merge(e.getValue());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package clinic.Analytics;
+
+import clinic.Models.ClinicHistoryRecord;
+
+/**
+ * Running totals for one bucket of treatments: count, priority mix and
+ * wait-time statistics. Records with unknown priority or wait are counted
+ * but left out of the corresponding statistic.
+ */
+public class TreatmentRollup {
+
+    public static final int MAX_PRIORITY = 5;
+
+    private long treatments;
+    private final long[] priorityCounts = new long[MAX_PRIORITY + 1]; // index 0 = unknown
+    private long waitSamples;
+    private long totalWaitMinutes;
+    private long maxWaitMinutes;
+
+    void record(ClinicHistoryRecord record) {
+        treatments++;
+
+        int priority = record.getPriorityLevel();
+        priorityCounts[priority >= 1 && priority <= MAX_PRIORITY ? priority : 0]++;
+
+        long wait = record.getWaitMinutes();
+        if (wait >= 0) {
+            waitSamples++;
+            totalWaitMinutes += wait;
+            maxWaitMinutes = Math.max(maxWaitMinutes, wait);
+        }
+    }
+
+    void merge(TreatmentRollup other) {
+        treatments += other.treatments;
+        for (int i = 0; i <= MAX_PRIORITY; i++) {
+            priorityCounts[i] += other.priorityCounts[i];
+        }
+        waitSamples += other.waitSamples;
+        totalWaitMinutes += other.totalWaitMinutes;
+        maxWaitMinutes = Math.max(maxWaitMinutes, other.maxWaitMinutes);
+    }
+
+    public long getTreatments() {
+        return treatments;
+    }
+
+    // Priority 1-5, or 0 for records with unknown priority
+    public long getPriorityCount(int priorityLevel) {
+        if (priorityLevel < 0 || priorityLevel > MAX_PRIORITY) return 0;
+        return priorityCounts[priorityLevel];
+    }
+
+    public long getWaitSamples() {
+        return waitSamples;
+    }
+
+    // -1 when no wait times are known for this bucket
+    public double getAverageWaitMinutes() {
+        return waitSamples == 0 ? -1 : (double) totalWaitMinutes / waitSamples;
+    }
+
+    public long getMaxWaitMinutes() {
+        return maxWaitMinutes;
+    }
+}
@@ -1,28 +1,61 @@
 package clinic;
 
+import clinic.Analytics.TreatmentAnalytics;
+import clinic.Analytics.TreatmentRollup;
 import clinic.Models.*;
+import clinic.Scheduling.HashedTimerWheel;
+import clinic.Scheduling.IndexedPatientQueue;
+import clinic.Storage.CsvReader;
+import clinic.Storage.CsvWriter;
+import clinic.Storage.NdjsonExporter;
+import clinic.Storage.NdjsonImporter;
 import java.util.*;
 import java.io.*;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.concurrent.ThreadLocalRandom;
 
 public class ClinicManagementSystem {
 
     // ------------------- FILE LOCATIONS -------------------
     private final String DATA_FILE = "clinic_data.csv";
+    private final String EXPORT_FILE = "clinic_export.ndjson.gz";
+    private final String LEGACY_PATIENTS_FILE = "patients.csv";
+    private final String LEGACY_HISTORY_FILE = "patient_history.csv";
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     // Data Structures here
-    private final PriorityQueue<Patient> waitingQueue = new PriorityQueue<>();
+    private final IndexedPatientQueue waitingQueue = new IndexedPatientQueue();
     private final HashMap<String, List<ClinicHistoryRecord>> patientHistoryMap = new HashMap<>();
     private final HashMap<String, String> patientNames = new HashMap<>();
     private final HashMap<String, Doctor> doctorMap = new HashMap<>();
     private final HashMap<String, Room> roomMap = new HashMap<>();
+    private final PatientIdentityIndex identityIndex = new PatientIdentityIndex();
+
+    // ------------------- TREATMENT SESSIONS -------------------
+    private static final long SESSION_TICK_MILLIS = 60_000L; // one-minute resolution
+    private static final int SESSION_WHEEL_SIZE = 512;
+    private static final Duration DEFAULT_SESSION_DURATION = Duration.ofMinutes(30);
+    private static final Duration OVERRUN_GRACE = Duration.ofMinutes(15);
+
+    private final LinkedHashMap<String, TreatmentSession> activeSessions = new LinkedHashMap<>();
+    private final HashMap<String, HashedTimerWheel.Timeout<TreatmentSession>> sessionTimeouts = new HashMap<>();
+    private final HashedTimerWheel<TreatmentSession> sessionWheel =
+            new HashedTimerWheel<>(SESSION_TICK_MILLIS, SESSION_WHEEL_SIZE, System.currentTimeMillis());
+
+    private TreatmentAnalytics analytics;
 
     // ------------------- CONSTRUCTOR -------------------
     public ClinicManagementSystem() {
         loadAllData();
+        analytics = TreatmentAnalytics.backfill(patientHistoryMap);
     }
 
     private String generateShortID(String prefix) {
@@ -52,6 +85,23 @@ public class ClinicManagementSystem {
 
         System.out.print("Enter Patient's Name: ");
         String name = scanner.nextLine();
+        System.out.print("Enter Date of Birth or Phone (optional): ");
+        String identifier = scanner.nextLine().trim();
+
+        String patientID = identityIndex.find(name, identifier);
+        if (patientID != null) {
+            System.out.print("Returning patient found: " + patientNames.get(patientID) + " (ID: " + patientID + "). Use this record? (y/n): ");
+            if (!scanner.nextLine().trim().equalsIgnoreCase("y")) {
+                patientID = null;
+            } else if (isQueuedOrInSession(patientID)) {
+                System.out.println("\n!! " + patientNames.get(patientID) + " is already in the queue or being treated !!");
+                return;
+            } else if (!identifier.isEmpty() && identityIndex.getIdentifier(patientID).isEmpty()) {
+                // Matched by name only; keep the identifier for the next visit
+                identityIndex.register(patientID, name, identifier);
+            }
+        }
+
         System.out.print("Enter Patient's Concern: ");
         String concern = scanner.nextLine();
 
@@ -85,12 +135,17 @@ public class ClinicManagementSystem {
             }
         }
 
-        String patientID = generateShortID("P");
+        if (patientID == null) {
+            patientID = generateShortID("P");
+            patientNames.put(patientID, name);
+            identityIndex.register(patientID, name, identifier);
+        }
+
         Patient newPatient = new Patient(patientID, name, concern, priorityLevel);
         newPatient.setDoctorID(assignedDoctor.getDoctorId());
+        newPatient.setCheckInTime(LocalDateTime.now());
 
         waitingQueue.add(newPatient);
-        patientNames.put(patientID, name);
 
         System.out.println("\n=============== SUCCESS ===================");
         System.out.println("Patient " + name + " checked in successfully!");
@@ -106,25 +161,38 @@ public class ClinicManagementSystem {
             return;
         }
 
-        Patient currentPatient = waitingQueue.poll();
+        // Serve the first patient in queue order whose doctor is free; if nobody's
+        // doctor is free, the head of the queue is offered a different doctor.
+        // The patient keeps their place in the queue until a session actually starts.
+        Patient currentPatient = findDispatchablePatient();
+        if (currentPatient == null) {
+            currentPatient = waitingQueue.peek();
+        }
         System.out.println("\n--- Treating Patient: " + currentPatient.getName() + " (P" + currentPatient.getPriorityLevel() + ") ---");
 
         String assignedDocID = currentPatient.getDoctorID();
         Doctor assignedDoctor = doctorMap.get(assignedDocID);
 
-        if (!assignedDoctor.isInClinic()) {
-            System.out.println("\n------------- ATTENTION --------------");
-            System.out.println("Assigned Doctor (" + assignedDoctor.getName() + ") is currently UNAVAILABLE/BUSY.");
-            System.out.println("1. Assign a new available doctor");
-            System.out.println("2. Wait for " + assignedDoctor.getName() + " (Return Patient to Queue)");
-            System.out.println("--------------------------------------");
-            System.out.print("Enter choice: ");
-
-            int choice = -1;
-            try {
-                choice = Integer.parseInt(scanner.nextLine());
-            } catch (NumberFormatException e) {
-                System.out.println("Invalid input. Defaulting to wait.");
+        if (assignedDoctor == null || !assignedDoctor.isInClinic()) {
+            int choice = 1;
+            if (assignedDoctor == null) {
+                System.out.println("\n------------- ATTENTION --------------");
+                System.out.println("No doctor is assigned to this patient.");
+                System.out.println("--------------------------------------");
+            } else {
+                System.out.println("\n------------- ATTENTION --------------");
+                System.out.println("Assigned Doctor (" + assignedDoctor.getName() + ") is currently UNAVAILABLE/BUSY.");
+                System.out.println("1. Assign a new available doctor");
+                System.out.println("2. Wait for " + assignedDoctor.getName() + " (Return Patient to Queue)");
+                System.out.println("--------------------------------------");
+                System.out.print("Enter choice: ");
+
+                choice = -1;
+                try {
+                    choice = Integer.parseInt(scanner.nextLine());
+                } catch (NumberFormatException e) {
+                    System.out.println("Invalid input. Defaulting to wait.");
+                }
             }
 
             if (choice == 1) {
@@ -132,10 +200,9 @@ public class ClinicManagementSystem {
 
                 if (availableDoctors.isEmpty()) {
                     System.out.println("\n------------------- ATTENTION ---------------------");
-                    System.out.println("Sorry, there are NO other doctors available either.");
+                    System.out.println("Sorry, there are NO doctors available.");
                     System.out.println("Returning patient to queue.");
                     System.out.println("---------------------------------------------------");
-                    waitingQueue.add(currentPatient);
                     return;
                 }
 
@@ -169,7 +236,6 @@ public class ClinicManagementSystem {
                 System.out.println("\n-------------------- Returning --------------------");
                 System.out.println("Returning patient to queue to wait for " + assignedDoctor.getName() + ".");
                 System.out.println("---------------------------------------------------");
-                waitingQueue.add(currentPatient);
                 return;
             }
         }
@@ -179,32 +245,268 @@ public class ClinicManagementSystem {
             System.out.println("\n--------------- ERROR ----------------");
             System.out.println("No rooms available. Returned to queue.");
             System.out.println("--------------------------------------");
-            waitingQueue.add(currentPatient);
             return;
         }
 
-        assignedDoctor.setInClinic(false);
-        availableRoom.setOccupied(true);
+        waitingQueue.remove(currentPatient.getPatientID());
+        Duration expectedDuration = promptSessionDuration(scanner);
+        TreatmentSession session = startSession(currentPatient, assignedDoctor, availableRoom, expectedDuration);
 
         System.out.println("Assigned Doctor: " + assignedDoctor.getName());
         System.out.println("Assigned Room: " + availableRoom.getType());
 
-        System.out.print("Enter Diagnosis: ");
-        String diagnosis = scanner.nextLine();
-        System.out.print("Enter Treatment Summary: ");
-        String treatment = scanner.nextLine();
+        System.out.println("\n----------- Success --------------");
+        System.out.println("Treatment session started.");
+        System.out.println("Expected end: " + session.getExpectedEnd().format(formatter));
+        System.out.println("----------------------------------");
+    }
 
-        LocalDateTime now = LocalDateTime.now();
-        ClinicHistoryRecord record = new ClinicHistoryRecord(now, assignedDoctor.getName(), diagnosis, treatment);
+    public void completeTreatment(Scanner scanner) {
+        System.out.println("\n--- Complete Treatment ---");
 
-        patientHistoryMap.computeIfAbsent(currentPatient.getPatientID(), k -> new ArrayList<>()).add(record);
+        if (activeSessions.isEmpty()) {
+            System.out.println("\n---------- Attention -------------");
+            System.out.println("No treatments are in progress.");
+            System.out.println("----------------------------------");
+            return;
+        }
 
-        assignedDoctor.setInClinic(true);
-        availableRoom.setOccupied(false);
+        List<TreatmentSession> sessions = new ArrayList<>(activeSessions.values());
+        for (int i = 0; i < sessions.size(); i++) {
+            System.out.println((i + 1) + ". " + sessions.get(i));
+        }
 
-        System.out.println("\n----------- Success --------------");
-        System.out.println("Treatment Complete. History saved.");
-        System.out.println("----------------------------------");
+        System.out.print("Enter number (or 0 to cancel): ");
+        try {
+            int choice = Integer.parseInt(scanner.nextLine());
+            if (choice == 0) return;
+
+            if (choice > 0 && choice <= sessions.size()) {
+                TreatmentSession session = sessions.get(choice - 1);
+
+                System.out.print("Enter Diagnosis: ");
+                String diagnosis = scanner.nextLine();
+                System.out.print("Enter Treatment Summary: ");
+                String treatment = scanner.nextLine();
+
+                Patient patient = session.getPatient();
+                long waitMinutes = patient.getCheckInTime() == null ? -1
+                        : Math.max(0, Duration.between(patient.getCheckInTime(), session.getStartTime()).toMinutes());
+
+                LocalDateTime now = LocalDateTime.now();
+                ClinicHistoryRecord record = new ClinicHistoryRecord(now, session.getDoctor().getName(), diagnosis, treatment,
+                        patient.getPriorityLevel(), waitMinutes);
+
+                patientHistoryMap.computeIfAbsent(patient.getPatientID(), k -> new ArrayList<>()).add(record);
+                analytics.record(record);
+                endSession(session);
+
+                System.out.println("\n----------- Success --------------");
+                System.out.println("Treatment Complete. History saved.");
+                System.out.println("----------------------------------");
+
+                dispatchFromQueue();
+            } else {
+                System.out.println("Invalid selection.");
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid input.");
+        }
+    }
+
+    public void viewQueue(Scanner scanner) {
+        System.out.println("\n--- Waiting Queue ---");
+        if (waitingQueue.isEmpty()) {
+            System.out.println("No patients in queue.");
+            return;
+        }
+
+        int position = 1;
+        for (Patient p : waitingQueue) {
+            System.out.println(position++ + ". " + p + " - ID: " + p.getPatientID());
+        }
+    }
+
+    public void findQueuePosition(Scanner scanner) {
+        System.out.print("\nEnter Patient ID: ");
+        String patientID = scanner.nextLine().trim();
+
+        int position = waitingQueue.positionOf(patientID);
+        if (position > 0) {
+            Patient p = waitingQueue.get(patientID);
+            System.out.println(p.getName() + " is number " + position + " of " + waitingQueue.size() + " in the queue.");
+        } else if (activeSessions.containsKey(patientID)) {
+            System.out.println("Patient is currently being treated.");
+        } else {
+            System.out.println("Patient " + patientID + " is not in the queue.");
+        }
+    }
+
+    public void cancelQueuedPatient(Scanner scanner) {
+        System.out.println("\n--- Cancel Appointment ---");
+        Patient selected = selectQueuedPatient(scanner);
+        if (selected == null) return;
+
+        waitingQueue.remove(selected.getPatientID());
+        System.out.println("\n--------------- SUCCESS ---------------");
+        System.out.println("Appointment for " + selected.getName() + " cancelled.");
+        System.out.println("---------------------------------------");
+    }
+
+    public void retriagePatient(Scanner scanner) {
+        System.out.println("\n--- Re-triage Patient ---");
+        Patient selected = selectQueuedPatient(scanner);
+        if (selected == null) return;
+
+        int priorityLevel = 0;
+        while (priorityLevel < 1 || priorityLevel > 5) {
+            try {
+                System.out.print("Enter New Priority Level ( 1 = Urgent, 5 = Least Urgent): ");
+                priorityLevel = Integer.parseInt(scanner.nextLine());
+            } catch (NumberFormatException e) {
+                System.out.println("\n!! Invalid input. Please enter a number !!");
+            }
+        }
+
+        waitingQueue.reprioritize(selected.getPatientID(), priorityLevel);
+        System.out.println("\n--------------- SUCCESS ---------------");
+        System.out.println(selected.getName() + " is now P" + priorityLevel + ", number "
+                + waitingQueue.positionOf(selected.getPatientID()) + " in the queue.");
+        System.out.println("---------------------------------------");
+    }
+
+    private Patient selectQueuedPatient(Scanner scanner) {
+        if (waitingQueue.isEmpty()) {
+            System.out.println("No patients in queue.");
+            return null;
+        }
+
+        List<Patient> queued = new ArrayList<>(waitingQueue.size());
+        for (Patient p : waitingQueue) {
+            queued.add(p);
+        }
+        for (int i = 0; i < queued.size(); i++) {
+            System.out.println((i + 1) + ". " + queued.get(i));
+        }
+
+        System.out.print("Enter number (or 0 to cancel): ");
+        try {
+            int choice = Integer.parseInt(scanner.nextLine());
+            if (choice > 0 && choice <= queued.size()) {
+                return queued.get(choice - 1);
+            }
+            if (choice != 0) {
+                System.out.println("Invalid selection.");
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid input.");
+        }
+        return null;
+    }
+
+    // Fires any session timeouts that have come due since the last call
+    public void processOverdueSessions() {
+        sessionWheel.advanceTo(System.currentTimeMillis(), this::handleOverdueSession);
+    }
+
+    private Duration promptSessionDuration(Scanner scanner) {
+        while (true) {
+            System.out.print("Enter Expected Duration in minutes (blank = " + DEFAULT_SESSION_DURATION.toMinutes() + "): ");
+            String input = scanner.nextLine().trim();
+            if (input.isEmpty()) {
+                return DEFAULT_SESSION_DURATION;
+            }
+            try {
+                int minutes = Integer.parseInt(input);
+                if (minutes > 0) {
+                    return Duration.ofMinutes(minutes);
+                }
+                System.out.println("\n!! Duration must be positive !!");
+            } catch (NumberFormatException e) {
+                System.out.println("\n!! Invalid input. Please enter a number !!");
+            }
+        }
+    }
+
+    private TreatmentSession startSession(Patient patient, Doctor doctor, Room room, Duration expectedDuration) {
+        doctor.setInClinic(false);
+        room.setOccupied(true);
+        patient.setDoctorID(doctor.getDoctorId());
+        patient.setRoomID(room.getRoomID());
+
+        TreatmentSession session = new TreatmentSession(patient, doctor, room, LocalDateTime.now(), expectedDuration);
+        activeSessions.put(patient.getPatientID(), session);
+        scheduleSessionTimeout(session, session.getExpectedEnd());
+        return session;
+    }
+
+    private void endSession(TreatmentSession session) {
+        String patientID = session.getPatient().getPatientID();
+        HashedTimerWheel.Timeout<TreatmentSession> timeout = sessionTimeouts.remove(patientID);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+        session.releaseResources();
+        activeSessions.remove(patientID);
+    }
+
+    private void scheduleSessionTimeout(TreatmentSession session, LocalDateTime deadline) {
+        long deadlineMillis = deadline.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        sessionTimeouts.put(session.getPatient().getPatientID(), sessionWheel.schedule(session, deadlineMillis));
+    }
+
+    // First overrun escalates; overrunning the grace period as well releases the doctor and room
+    private void handleOverdueSession(TreatmentSession session) {
+        String patientID = session.getPatient().getPatientID();
+        sessionTimeouts.remove(patientID);
+
+        if (!session.isEscalated()) {
+            session.setEscalated(true);
+            scheduleSessionTimeout(session, session.getExpectedEnd().plus(OVERRUN_GRACE));
+
+            System.out.println("\n------------- ATTENTION --------------");
+            System.out.println("Treatment OVERDUE: " + session);
+            System.out.println("--------------------------------------");
+        } else {
+            session.releaseResources();
+
+            System.out.println("\n------------- ATTENTION --------------");
+            System.out.println("Treatment overran grace period: " + session);
+            System.out.println(session.getDoctor().getName() + " and " + session.getRoom().getType() + " have been released.");
+            System.out.println("Complete the treatment to record its history.");
+            System.out.println("--------------------------------------");
+
+            dispatchFromQueue();
+        }
+    }
+
+    // Starts sessions, in queue order, for every waiting patient whose doctor is free while rooms last
+    private void dispatchFromQueue() {
+        while (findAvailableRoom() != null) {
+            Patient next = findDispatchablePatient();
+            if (next == null) {
+                return;
+            }
+
+            waitingQueue.remove(next.getPatientID());
+            TreatmentSession session = startSession(next, doctorMap.get(next.getDoctorID()), findAvailableRoom(),
+                    DEFAULT_SESSION_DURATION);
+            System.out.println("Now treating: " + session);
+        }
+    }
+
+    // First patient in dequeue order whose assigned doctor is free, so a busy doctor doesn't block the others
+    private Patient findDispatchablePatient() {
+        if (getAvailableDoctors().isEmpty()) {
+            return null;
+        }
+        for (Patient p : waitingQueue) {
+            Doctor doctor = doctorMap.get(p.getDoctorID());
+            if (doctor != null && doctor.isInClinic()) {
+                return p;
+            }
+        }
+        return null;
     }
 
     public void viewAllPatientHistory(Scanner scanner) {
@@ -279,6 +581,13 @@ public class ClinicManagementSystem {
 
                 int statusChoice = Integer.parseInt(scanner.nextLine());
                 if (statusChoice == 1) {
+                    // A doctor held by a session is freed when that session ends or is released
+                    for (TreatmentSession ts : activeSessions.values()) {
+                        if (ts.getDoctor() == selectedDoc && !ts.isResourcesReleased()) {
+                            System.out.println("Cannot set " + selectedDoc.getName() + " to Available while treating " + ts.getPatient().getName() + ".");
+                            return;
+                        }
+                    }
                     selectedDoc.setInClinic(true);
                     System.out.println(selectedDoc.getName() + " is now Available.");
                 } else if (statusChoice == 2) {
@@ -293,6 +602,41 @@ public class ClinicManagementSystem {
         }
     }
 
+    public void viewAnalytics(Scanner scanner) {
+        LocalDate today = LocalDate.now();
+        TreatmentRollup overall = analytics.getOverall();
+        TreatmentRollup todayRollup = analytics.getDay(today);
+
+        System.out.println("\n--- Clinic Analytics ---");
+        System.out.println("Treatments today: " + todayRollup.getTreatments()
+                + " | this month: " + analytics.getMonth(YearMonth.from(today)).getTreatments()
+                + " | all time: " + overall.getTreatments());
+
+        System.out.println("\nTreatments per doctor today:");
+        for (Doctor d : doctorMap.values()) {
+            System.out.println("  " + d.getName() + ": " + analytics.getTreatmentsForDoctorOnDay(d.getName(), today));
+        }
+
+        System.out.println("\nMost frequent diagnoses:");
+        List<Map.Entry<String, Long>> topDiagnoses = analytics.getTopDiagnoses(5);
+        if (topDiagnoses.isEmpty()) {
+            System.out.println("  No treatments recorded yet.");
+        }
+        for (Map.Entry<String, Long> e : topDiagnoses) {
+            System.out.println("  " + e.getKey() + ": " + e.getValue());
+        }
+
+        System.out.println("\nPriority mix (all time):");
+        for (int p = 1; p <= TreatmentRollup.MAX_PRIORITY; p++) {
+            System.out.println("  P" + p + ": " + overall.getPriorityCount(p));
+        }
+        System.out.println("  Unknown: " + overall.getPriorityCount(0));
+
+        double avgWait = overall.getAverageWaitMinutes();
+        System.out.println("\nAverage wait: " + (avgWait < 0 ? "N/A" : String.format("%.1f min", avgWait))
+                + " | longest wait: " + overall.getMaxWaitMinutes() + " min");
+    }
+
     public void registerNewDoctor(Scanner scanner) {
         System.out.println("\n--- Register New Doctor ---");
         System.out.print("Enter Doctor's Name: ");
@@ -321,7 +665,20 @@ public class ClinicManagementSystem {
             int choice = Integer.parseInt(scanner.nextLine());
             if (choice > 0 && choice <= doctorList.size()) {
                 Doctor toRemove = doctorList.get(choice - 1);
+                for (TreatmentSession ts : activeSessions.values()) {
+                    if (ts.getDoctor() == toRemove) {
+                        System.out.println("Cannot remove " + toRemove.getName() + " while treating " + ts.getPatient().getName() + ".");
+                        return;
+                    }
+                }
+
                 doctorMap.remove(toRemove.getDoctorId());
+                // Queued patients of this doctor get a new doctor when they are treated
+                for (Patient p : waitingQueue) {
+                    if (p.getDoctorID().equals(toRemove.getDoctorId())) {
+                        p.setDoctorID("N/A");
+                    }
+                }
                 System.out.println("Removed " + toRemove.getName());
             }
         } catch (NumberFormatException e) {
@@ -357,6 +714,13 @@ public class ClinicManagementSystem {
             int choice = Integer.parseInt(scanner.nextLine());
             if (choice > 0 && choice <= roomList.size()) {
                 Room toRemove = roomList.get(choice - 1);
+                for (TreatmentSession ts : activeSessions.values()) {
+                    if (ts.getRoom() == toRemove) {
+                        System.out.println("Cannot remove Room " + toRemove.getType() + " while it is used by " + ts.getPatient().getName() + ".");
+                        return;
+                    }
+                }
+
                 roomMap.remove(toRemove.getRoomID());
                 System.out.println("Removed Room " + toRemove.getType());
             }
@@ -382,62 +746,457 @@ public class ClinicManagementSystem {
         return null;
     }
 
+    // ------------------- PATIENT RECORD MERGE -------------------
+    /**
+     * One-time cleanup for data saved before returning patients kept their ID:
+     * folds in the legacy patients/history CSVs if present, moves history from
+     * duplicate IDs of the same person onto one ID and drops repeated records.
+     * The planned merges are shown first and nothing changes until the desk
+     * confirms; groups matched by name alone are confirmed one by one.
+     */
+    public void mergeDuplicatePatients(Scanner scanner) {
+        System.out.println("\n--- Merge Duplicate Patient Records ---");
+
+        HashMap<String, String> legacyNames = new HashMap<>();
+        HashMap<String, List<ClinicHistoryRecord>> legacyHistory = new HashMap<>();
+        int legacyRecords = readLegacyFiles(legacyNames, legacyHistory);
+
+        HashMap<String, String> names = new HashMap<>(patientNames);
+        for (Map.Entry<String, String> e : legacyNames.entrySet()) {
+            names.putIfAbsent(e.getKey(), e.getValue());
+        }
+
+        HashMap<String, String> identifiers = new HashMap<>();
+        HashMap<String, List<String>> idsByIdentity = new HashMap<>();
+        HashMap<String, List<String>> unidentifiedByName = new HashMap<>();
+        for (Map.Entry<String, String> e : names.entrySet()) {
+            String identifier = identityIndex.getIdentifier(e.getKey());
+            identifiers.put(e.getKey(), identifier);
+            String key = PatientIdentityIndex.key(e.getValue(), identifier);
+            idsByIdentity.computeIfAbsent(key, k -> new ArrayList<>()).add(e.getKey());
+            if (identifier.isEmpty()) {
+                unidentifiedByName.put(key, idsByIdentity.get(key));
+            }
+        }
+
+        // IDs saved without an identifier join the one identified group with the same
+        // name; with several identified groups it is unclear who they are, so they stay apart
+        HashMap<String, List<String>> identifiedByName = new HashMap<>();
+        for (Map.Entry<String, List<String>> e : idsByIdentity.entrySet()) {
+            String identifier = identifiers.get(e.getValue().get(0));
+            if (!identifier.isEmpty()) {
+                String nameKey = PatientIdentityIndex.key(names.get(e.getValue().get(0)), "");
+                identifiedByName.computeIfAbsent(nameKey, k -> new ArrayList<>()).add(e.getKey());
+            }
+        }
+        for (Map.Entry<String, List<String>> e : identifiedByName.entrySet()) {
+            List<String> unidentified = unidentifiedByName.get(e.getKey());
+            if (unidentified != null && e.getValue().size() == 1) {
+                idsByIdentity.get(e.getValue().get(0)).addAll(unidentified);
+                idsByIdentity.remove(e.getKey());
+            }
+        }
+
+        List<List<String>> groups = new ArrayList<>();
+        for (List<String> ids : idsByIdentity.values()) {
+            if (ids.size() > 1) groups.add(ids);
+        }
+        groups.sort(Comparator.comparing(ids -> names.get(ids.get(0))));
+
+        // Plan: canonical ID per confirmed group
+        LinkedHashMap<String, List<String>> merges = new LinkedHashMap<>();
+        int skippedGroups = 0;
+        for (List<String> ids : groups) {
+            String canonical = chooseCanonicalID(ids, legacyHistory);
+            String identifier = "";
+            boolean nameOnly = false;
+            for (String id : ids) {
+                if (identifiers.get(id).isEmpty()) {
+                    nameOnly = true;
+                } else if (identifier.isEmpty()) {
+                    identifier = identifiers.get(id);
+                }
+            }
+
+            System.out.println("\n" + names.get(ids.get(0)) + (identifier.isEmpty() ? "" : " (DOB/Phone: " + identifier + ")"));
+            for (String id : ids) {
+                int records = patientHistoryMap.getOrDefault(id, Collections.emptyList()).size()
+                        + legacyHistory.getOrDefault(id, Collections.emptyList()).size();
+                System.out.println("  " + id + " - " + records + " record(s)"
+                        + (id.equals(canonical) ? " [keep]" : "")
+                        + (identifiers.get(id).isEmpty() ? " [no DOB/Phone]" : ""));
+            }
+
+            if (canonical == null) {
+                System.out.println("  Skipped: more than one of these IDs has an active visit.");
+                skippedGroups++;
+                continue;
+            }
+            if (nameOnly) {
+                System.out.print("  Matched by name only. Are these the same person? (y/n): ");
+                if (!scanner.nextLine().trim().equalsIgnoreCase("y")) {
+                    continue;
+                }
+            }
+            merges.put(canonical, ids);
+        }
+
+        int mergedIDs = 0;
+        for (List<String> ids : merges.values()) {
+            mergedIDs += ids.size() - 1;
+        }
+
+        System.out.println("\nLegacy history records to fold in: " + legacyRecords);
+        System.out.println("Patient IDs to merge: " + mergedIDs + " into " + merges.size() + " patient(s)");
+        if (skippedGroups > 0) {
+            System.out.println("Skipped " + skippedGroups + " patient(s) with more than one active visit.");
+        }
+        System.out.print("Apply these changes? This cannot be undone once saved. (y/n): ");
+        if (!scanner.nextLine().trim().equalsIgnoreCase("y")) {
+            System.out.println("No changes made.");
+            return;
+        }
+
+        for (Map.Entry<String, String> e : legacyNames.entrySet()) {
+            patientNames.putIfAbsent(e.getKey(), e.getValue());
+        }
+        for (Map.Entry<String, List<ClinicHistoryRecord>> e : legacyHistory.entrySet()) {
+            patientHistoryMap.computeIfAbsent(e.getKey(), k -> new ArrayList<>()).addAll(e.getValue());
+        }
+
+        for (Map.Entry<String, List<String>> merge : merges.entrySet()) {
+            String canonical = merge.getKey();
+            for (String id : merge.getValue()) {
+                if (identifiers.get(canonical).isEmpty() && !identifiers.get(id).isEmpty()) {
+                    identifiers.put(canonical, identifiers.get(id));
+                }
+                if (id.equals(canonical)) continue;
+                List<ClinicHistoryRecord> moved = patientHistoryMap.remove(id);
+                if (moved != null) {
+                    patientHistoryMap.computeIfAbsent(canonical, k -> new ArrayList<>()).addAll(moved);
+                }
+                patientNames.remove(id);
+            }
+        }
+
+        int removedDuplicates = 0;
+        for (List<ClinicHistoryRecord> records : patientHistoryMap.values()) {
+            removedDuplicates += removeDuplicateRecords(records);
+        }
+
+        // Rebuild everything derived from the patient list and history
+        identityIndex.clear();
+        for (Map.Entry<String, String> e : patientNames.entrySet()) {
+            identityIndex.register(e.getKey(), e.getValue(), identifiers.get(e.getKey()));
+        }
+        analytics = TreatmentAnalytics.backfill(patientHistoryMap);
+
+        System.out.println("\n--------------- SUCCESS ---------------");
+        System.out.println("Legacy history records read: " + legacyRecords);
+        System.out.println("Duplicate patient IDs merged: " + mergedIDs);
+        System.out.println("Repeated history records removed: " + removedDuplicates);
+        System.out.println("---------------------------------------");
+    }
+
+    // Prefers the ID with an active visit, otherwise the one with the oldest history
+    private String chooseCanonicalID(List<String> ids, Map<String, List<ClinicHistoryRecord>> legacyHistory) {
+        String active = null;
+        for (String id : ids) {
+            if (isQueuedOrInSession(id)) {
+                if (active != null) return null;
+                active = id;
+            }
+        }
+        if (active != null) return active;
+
+        String canonical = ids.get(0);
+        LocalDateTime oldest = null;
+        for (String id : ids) {
+            for (Map<String, List<ClinicHistoryRecord>> history : List.of(patientHistoryMap, legacyHistory)) {
+                for (ClinicHistoryRecord r : history.getOrDefault(id, Collections.emptyList())) {
+                    if (oldest == null || r.getDateTime().isBefore(oldest)) {
+                        oldest = r.getDateTime();
+                        canonical = id;
+                    }
+                }
+            }
+        }
+        return canonical;
+    }
+
+    // Sorts records by time and drops exact repeats; returns how many were removed
+    private int removeDuplicateRecords(List<ClinicHistoryRecord> records) {
+        records.sort(Comparator.comparing(ClinicHistoryRecord::getDateTime));
+        int before = records.size();
+        HashSet<String> seen = new HashSet<>();
+        records.removeIf(r -> !seen.add(historyKey(r)));
+        return before - records.size();
+    }
+
+    // Identifies a history record within one patient's history
+    private String historyKey(ClinicHistoryRecord r) {
+        return r.getDateTime().format(formatter) + "\u0000" + r.getDoctorName()
+                + "\u0000" + r.getDiagnosis() + "\u0000" + r.getTreatment();
+    }
+
+    // Reads the legacy patients/history CSVs, if present, into the given maps; returns history records read
+    private int readLegacyFiles(Map<String, String> names, Map<String, List<ClinicHistoryRecord>> history) {
+        int records = 0;
+
+        File patientsFile = new File(LEGACY_PATIENTS_FILE);
+        if (patientsFile.exists()) {
+            try (CsvReader csv = new CsvReader(new FileReader(patientsFile))) {
+                csv.nextRecord(); // Skip column headers
+                while (csv.nextRecord()) {
+                    if (csv.isBlank() || csv.fieldCount() < 2) continue;
+                    names.putIfAbsent(csv.field(0), csv.field(1));
+                }
+            } catch (IOException e) {
+                System.err.println("Error reading " + LEGACY_PATIENTS_FILE + ": " + e.getMessage());
+            }
+        }
+
+        File historyFile = new File(LEGACY_HISTORY_FILE);
+        if (historyFile.exists()) {
+            try (CsvReader csv = new CsvReader(new FileReader(historyFile))) {
+                csv.nextRecord(); // Skip column headers
+                while (csv.nextRecord()) {
+                    if (csv.isBlank() || csv.fieldCount() < 5) continue;
+                    LocalDateTime time = LocalDateTime.parse(csv.fieldSlice(1), formatter);
+                    ClinicHistoryRecord r = new ClinicHistoryRecord(time, csv.field(2), csv.field(3), csv.field(4));
+                    history.computeIfAbsent(csv.field(0), k -> new ArrayList<>()).add(r);
+                    records++;
+                }
+            } catch (IOException | DateTimeParseException e) {
+                System.err.println("Error reading " + LEGACY_HISTORY_FILE + ": " + e.getMessage());
+            }
+        }
+        return records;
+    }
+
     // ------------------- FILE HANDLING -------------------
+    public void exportData(Scanner scanner) {
+        System.out.println("\n--- Export Data (NDJSON) ---");
+        System.out.print("Enter export file (blank = " + EXPORT_FILE + ", .gz = compressed): ");
+        String fileName = scanner.nextLine().trim();
+        Path path = Paths.get(fileName.isEmpty() ? EXPORT_FILE : fileName);
+
+        System.out.print("Only history from (yyyy-MM-dd HH:mm:ss, blank = full export): ");
+        String sinceInput = scanner.nextLine().trim();
+        LocalDateTime since = null;
+        if (!sinceInput.isEmpty()) {
+            try {
+                since = LocalDateTime.parse(sinceInput, formatter);
+            } catch (DateTimeParseException e) {
+                System.out.println("Invalid date. Export cancelled.");
+                return;
+            }
+        }
+
+        try (NdjsonExporter exporter = new NdjsonExporter(path)) {
+            exportData(exporter, since);
+
+            System.out.println("\n--------------- SUCCESS ---------------");
+            System.out.println("Exported " + exporter.getRecordsWritten() + " records to " + path);
+            if (exporter.getLatestHistoryTime() != null) {
+                System.out.println("Next incremental export from: " + exporter.getLatestHistoryTime().format(formatter));
+            }
+            System.out.println("---------------------------------------");
+        } catch (IOException e) {
+            System.err.println("Error exporting data: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Streams patients, queue and history to the exporter. With a since time only
+     * history recorded at or after it is written, along with the patients it belongs
+     * to; the queue is always written in full as a snapshot. The boundary is
+     * inclusive because timestamps have one-second resolution, so records sharing
+     * the previous export's last second are exported again and skipped on import.
+     */
+    public void exportData(NdjsonExporter exporter, LocalDateTime since) throws IOException {
+        for (Map.Entry<String, String> e : patientNames.entrySet()) {
+            if (since == null || hasHistorySince(e.getKey(), since)) {
+                exporter.writePatient(e.getKey(), e.getValue(), identityIndex.getIdentifier(e.getKey()));
+            }
+        }
+
+        for (Patient p : waitingQueue) {
+            exporter.writeQueued(p);
+        }
+
+        for (Map.Entry<String, List<ClinicHistoryRecord>> e : patientHistoryMap.entrySet()) {
+            for (ClinicHistoryRecord r : e.getValue()) {
+                if (since == null || !r.getDateTime().isBefore(since)) {
+                    exporter.writeHistory(e.getKey(), r);
+                }
+            }
+        }
+    }
+
+    public void importData(Scanner scanner) {
+        System.out.println("\n--- Import Data (NDJSON) ---");
+        System.out.print("Enter import file (blank = " + EXPORT_FILE + "): ");
+        String fileName = scanner.nextLine().trim();
+        Path path = Paths.get(fileName.isEmpty() ? EXPORT_FILE : fileName);
+
+        if (!path.toFile().exists()) {
+            System.out.println("File not found: " + path);
+            return;
+        }
+
+        // History keys per patient, built the first time the import touches that patient
+        HashMap<String, HashSet<String>> knownHistory = new HashMap<>();
+        // Records that changed something; the rest were already here
+        long[] applied = {0};
+
+        try {
+            long records = new NdjsonImporter().importFrom(path, new NdjsonImporter.Listener() {
+                @Override
+                public void onPatient(String patientID, String name, String identifier) {
+                    if (patientNames.putIfAbsent(patientID, name) == null) {
+                        identityIndex.register(patientID, name, identifier);
+                        applied[0]++;
+                    }
+                }
+
+                @Override
+                public void onQueued(Patient patient) {
+                    if (!doctorMap.containsKey(patient.getDoctorID())) {
+                        // Unknown doctor here; a doctor is chosen when the patient is treated
+                        patient.setDoctorID("N/A");
+                    }
+                    if (!isQueuedOrInSession(patient.getPatientID())) {
+                        waitingQueue.add(patient);
+                        applied[0]++;
+                        if (patientNames.putIfAbsent(patient.getPatientID(), patient.getName()) == null) {
+                            identityIndex.register(patient.getPatientID(), patient.getName(), "");
+                        }
+                    }
+                }
+
+                @Override
+                public void onHistory(String patientID, ClinicHistoryRecord record) {
+                    List<ClinicHistoryRecord> history = patientHistoryMap.computeIfAbsent(patientID, k -> new ArrayList<>());
+                    HashSet<String> known = knownHistory.computeIfAbsent(patientID, k -> {
+                        HashSet<String> keys = new HashSet<>();
+                        for (ClinicHistoryRecord r : history) {
+                            keys.add(historyKey(r));
+                        }
+                        return keys;
+                    });
+
+                    if (known.add(historyKey(record))) {
+                        history.add(record);
+                        analytics.record(record);
+                        applied[0]++;
+                    }
+                }
+            });
+
+            System.out.println("\n--------------- SUCCESS ---------------");
+            System.out.println("Imported " + applied[0] + " new records from " + path);
+            if (records > applied[0]) {
+                System.out.println("Skipped " + (records - applied[0]) + " records already present.");
+            }
+            System.out.println("---------------------------------------");
+        } catch (IOException e) {
+            System.err.println("Error importing data: " + e.getMessage());
+        }
+    }
+
+    private boolean hasHistorySince(String patientID, LocalDateTime since) {
+        List<ClinicHistoryRecord> records = patientHistoryMap.get(patientID);
+        if (records == null) return false;
+        for (ClinicHistoryRecord r : records) {
+            if (!r.getDateTime().isBefore(since)) return true;
+        }
+        return false;
+    }
+
+    private boolean isQueuedOrInSession(String patientID) {
+        return activeSessions.containsKey(patientID) || waitingQueue.contains(patientID);
+    }
+
     public void exitAndSave() {
         saveAllData();
         System.out.println("System shutting down. Goodbye!");
     }
 
     private void saveAllData() {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(DATA_FILE))) {
+        try (CsvWriter csv = new CsvWriter(new BufferedWriter(new FileWriter(DATA_FILE)))) {
             // PATIENTS SECTION
-            pw.println("[PATIENTS]");
-            pw.println("PatientID,Name");
+            csv.record("[PATIENTS]");
+            csv.record("PatientID", "Name", "Identifier");
             for (String id : patientNames.keySet()) {
-                pw.println(id + "," + patientNames.get(id));
+                csv.record(id, patientNames.get(id), identityIndex.getIdentifier(id));
             }
-            pw.println();
+            csv.endRecord();
 
             // DOCTORS SECTION
-            pw.println("[DOCTORS]");
-            pw.println("DoctorID,Name,InClinic");
+            csv.record("[DOCTORS]");
+            csv.record("DoctorID", "Name", "InClinic");
             for (Doctor d : doctorMap.values()) {
-                pw.println(d.getDoctorId() + "," + d.getName() + "," + d.isInClinic());
+                csv.field(d.getDoctorId()).field(d.getName()).field(d.isInClinic()).endRecord();
             }
-            pw.println();
+            csv.endRecord();
 
             // ROOMS SECTION
-            pw.println("[ROOMS]");
-            pw.println("RoomID,Type,IsOccupied");
+            csv.record("[ROOMS]");
+            csv.record("RoomID", "Type", "IsOccupied");
             for (Room r : roomMap.values()) {
-                pw.println(r.getRoomID() + "," + r.getType() + "," + r.isOccupied());
+                csv.field(r.getRoomID()).field(r.getType()).field(r.isOccupied()).endRecord();
             }
-            pw.println();
+            csv.endRecord();
 
             // WAITING QUEUE SECTION
-            pw.println("[QUEUE]");
-            pw.println("PatientID,Name,Concern,Priority,DoctorID");
+            csv.record("[QUEUE]");
+            csv.record("PatientID", "Name", "Concern", "Priority", "DoctorID", "CheckInTime");
             for (Patient p : waitingQueue) {
-                pw.println(p.getPatientID() + "," + 
-                          p.getName() + "," + 
-                          p.getConcern() + "," + 
-                          p.getPriorityLevel() + "," + 
-                          p.getDoctorID());
+                csv.field(p.getPatientID())
+                   .field(p.getName())
+                   .field(p.getConcern())
+                   .field(p.getPriorityLevel())
+                   .field(p.getDoctorID())
+                   .field(formatOptionalTime(p.getCheckInTime()))
+                   .endRecord();
+            }
+            csv.endRecord();
+
+            // TREATMENT SESSIONS SECTION
+            csv.record("[SESSIONS]");
+            csv.record("PatientID", "Name", "Concern", "Priority", "DoctorID", "RoomID",
+                    "StartTime", "ExpectedMinutes", "Escalated", "Released", "CheckInTime");
+            for (TreatmentSession ts : activeSessions.values()) {
+                Patient p = ts.getPatient();
+                csv.field(p.getPatientID())
+                   .field(p.getName())
+                   .field(p.getConcern())
+                   .field(p.getPriorityLevel())
+                   .field(ts.getDoctor().getDoctorId())
+                   .field(ts.getRoom().getRoomID())
+                   .field(ts.getStartTime().format(formatter))
+                   .field(ts.getExpectedDuration().toMinutes())
+                   .field(ts.isEscalated())
+                   .field(ts.isResourcesReleased())
+                   .field(formatOptionalTime(p.getCheckInTime()))
+                   .endRecord();
             }
-            pw.println();
+            csv.endRecord();
 
             // HISTORY SECTION
-            pw.println("[HISTORY]");
-            pw.println("PatientID,DateTime,Doctor,Diagnosis,Treatment");
+            csv.record("[HISTORY]");
+            csv.record("PatientID", "DateTime", "Doctor", "Diagnosis", "Treatment", "Priority", "WaitMinutes");
             for (String id : patientHistoryMap.keySet()) {
                 for (ClinicHistoryRecord r : patientHistoryMap.get(id)) {
-                    pw.println(
-                            id + "," +
-                            r.getDateTime().format(formatter) + "," +
-                            r.getDoctorName() + "," +
-                            r.getDiagnosis().replace(",", ";") + "," +
-                            r.getTreatment().replace(",", ";")
-                    );
+                    csv.field(id)
+                       .field(r.getDateTime().format(formatter))
+                       .field(r.getDoctorName())
+                       .field(r.getDiagnosis())
+                       .field(r.getTreatment())
+                       .field(r.getPriorityLevel())
+                       .field(r.getWaitMinutes())
+                       .endRecord();
                 }
             }
 
@@ -452,69 +1211,90 @@ public class ClinicManagementSystem {
             return;
         }
 
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
+        try (CsvReader csv = new CsvReader(new FileReader(file))) {
             String currentSection = "";
 
-            while ((line = br.readLine()) != null) {
-                line = line.trim();
-                
-                if (line.startsWith("[") && line.endsWith("]")) {
-                    currentSection = line.substring(1, line.length() - 1);
-                    br.readLine(); // Skip column headers
+            while (csv.nextRecord()) {
+                if (csv.isBlank()) {
                     continue;
                 }
 
-                if (line.isEmpty()) {
-                    continue;
+                if (csv.fieldCount() == 1) {
+                    String line = csv.field(0).trim();
+                    if (line.startsWith("[") && line.endsWith("]")) {
+                        currentSection = line.substring(1, line.length() - 1);
+                        csv.nextRecord(); // Skip column headers
+                        continue;
+                    }
                 }
 
-                String[] parts = line.split(",", -1);
+                int fields = csv.fieldCount();
 
                 switch (currentSection) {
                     case "PATIENTS":
-                        if (parts.length >= 2) {
-                            patientNames.put(parts[0], parts[1]);
+                        if (fields >= 2) {
+                            String identifier = fields >= 3 ? csv.field(2) : "";
+                            patientNames.put(csv.field(0), csv.field(1));
+                            identityIndex.register(csv.field(0), csv.field(1), identifier);
                         }
                         break;
 
                     case "DOCTORS":
-                        if (parts.length >= 3) {
-                            String id = parts[0];
-                            String name = parts[1];
-                            boolean inClinic = Boolean.parseBoolean(parts[2]);
+                        if (fields >= 3) {
+                            String id = csv.field(0);
+                            String name = csv.field(1);
+                            boolean inClinic = csv.booleanField(2);
                             doctorMap.put(id, new Doctor(id, name, inClinic));
                         }
                         break;
 
                     case "ROOMS":
-                        if (parts.length >= 3) {
-                            String id = parts[0];
-                            String type = parts[1];
-                            boolean occupied = Boolean.parseBoolean(parts[2]);
+                        if (fields >= 3) {
+                            String id = csv.field(0);
+                            String type = csv.field(1);
+                            boolean occupied = csv.booleanField(2);
                             roomMap.put(id, new Room(id, type, occupied));
                         }
                         break;
 
                     case "QUEUE":
-                        if (parts.length >= 5) {
-                            String id = parts[0];
-                            String name = parts[1];
-                            String concern = parts[2];
-                            int priority = Integer.parseInt(parts[3]);
-                            String doctorID = parts[4];
+                        if (fields >= 5) {
+                            String id = csv.field(0);
+                            String name = csv.field(1);
+                            String concern = csv.field(2);
+                            int priority = csv.intField(3);
+                            String doctorID = csv.field(4);
 
                             Patient patient = new Patient(id, name, concern, priority);
                             patient.setDoctorID(doctorID);
+                            if (fields >= 6) {
+                                patient.setCheckInTime(parseOptionalTime(csv, 5));
+                            }
                             waitingQueue.add(patient);
                         }
                         break;
 
+                    case "SESSIONS":
+                        if (fields >= 10) {
+                            Patient patient = new Patient(csv.field(0), csv.field(1), csv.field(2), csv.intField(3));
+                            patient.setDoctorID(csv.field(4));
+                            if (fields >= 11) {
+                                patient.setCheckInTime(parseOptionalTime(csv, 10));
+                            }
+                            restoreSession(patient, csv.field(5), LocalDateTime.parse(csv.fieldSlice(6), formatter),
+                                    Duration.ofMinutes(csv.longField(7)),
+                                    csv.booleanField(8), csv.booleanField(9));
+                        }
+                        break;
+
                     case "HISTORY":
-                        if (parts.length >= 5) {
-                            String id = parts[0];
-                            LocalDateTime time = LocalDateTime.parse(parts[1], formatter);
-                            ClinicHistoryRecord r = new ClinicHistoryRecord(time, parts[2], parts[3], parts[4]);
+                        if (fields >= 5) {
+                            String id = csv.field(0);
+                            LocalDateTime time = LocalDateTime.parse(csv.fieldSlice(1), formatter);
+                            ClinicHistoryRecord r = fields >= 7
+                                    ? new ClinicHistoryRecord(time, csv.field(2), csv.field(3), csv.field(4),
+                                            csv.intField(5), csv.longField(6))
+                                    : new ClinicHistoryRecord(time, csv.field(2), csv.field(3), csv.field(4));
                             patientHistoryMap.computeIfAbsent(id, k -> new ArrayList<>()).add(r);
                         }
                         break;
@@ -525,4 +1305,40 @@ public class ClinicManagementSystem {
             System.err.println("Error loading data: " + e.getMessage());
         }
     }
+
+    private String formatOptionalTime(LocalDateTime time) {
+        return time == null ? "" : time.format(formatter);
+    }
+
+    private LocalDateTime parseOptionalTime(CsvReader csv, int index) {
+        CharSequence value = csv.fieldSlice(index);
+        return value.length() == 0 ? null : LocalDateTime.parse(value, formatter);
+    }
+
+    private void restoreSession(Patient patient, String roomID, LocalDateTime startTime,
+                                Duration expectedDuration, boolean escalated, boolean released) {
+        Doctor doctor = doctorMap.get(patient.getDoctorID());
+        Room room = roomMap.get(roomID);
+        if (doctor == null || room == null) {
+            // Doctor or room no longer exists, so the patient waits again
+            if (doctor == null) {
+                patient.setDoctorID("N/A");
+            }
+            waitingQueue.add(patient);
+            return;
+        }
+
+        patient.setRoomID(roomID);
+        TreatmentSession session = new TreatmentSession(patient, doctor, room, startTime, expectedDuration);
+        session.setEscalated(escalated);
+        activeSessions.put(patient.getPatientID(), session);
+
+        if (released) {
+            session.setResourcesReleased(true);
+            return;
+        }
+        doctor.setInClinic(false);
+        room.setOccupied(true);
+        scheduleSessionTimeout(session, escalated ? session.getExpectedEnd().plus(OVERRUN_GRACE) : session.getExpectedEnd());
+    }
 }
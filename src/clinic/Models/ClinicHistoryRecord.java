@@ -9,6 +9,8 @@ public class ClinicHistoryRecord {
     private final String doctorName;
     private final String diagnosis;
     private final String treatment;
+    private final int priorityLevel;
+    private final long waitMinutes;
 
     private static final DateTimeFormatter FORMATTER =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
@@ -17,10 +19,22 @@ public class ClinicHistoryRecord {
                                String doctorName,
                                String diagnosis,
                                String treatment) {
+        this(timestamp, doctorName, diagnosis, treatment, 0, -1);
+    }
+
+    // priorityLevel 0 and waitMinutes -1 mean unknown
+    public ClinicHistoryRecord(LocalDateTime timestamp,
+                               String doctorName,
+                               String diagnosis,
+                               String treatment,
+                               int priorityLevel,
+                               long waitMinutes) {
         this.timestamp = timestamp;
         this.doctorName = doctorName;
         this.diagnosis = diagnosis;
         this.treatment = treatment;
+        this.priorityLevel = priorityLevel;
+        this.waitMinutes = waitMinutes;
     }
 
     // All getter methods needed
@@ -40,6 +54,14 @@ public class ClinicHistoryRecord {
         return treatment;
     }
 
+    public int getPriorityLevel() {
+        return priorityLevel;
+    }
+
+    public long getWaitMinutes() {
+        return waitMinutes;
+    }
+
     @Override
     public String toString() {
         return  "Date: " + timestamp.format(FORMATTER) + "\n" +
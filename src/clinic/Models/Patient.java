@@ -1,12 +1,15 @@
 package clinic.Models;
 
+import java.time.LocalDateTime;
+
 public class Patient implements Comparable<Patient> {
     private final String patientID;
     private final String name;
     private final String concern;
-    private final int priorityLevel;
+    private int priorityLevel;
     private String roomID = "N/A";
     private String doctorID = "N/A";
+    private LocalDateTime checkInTime;
 
     public Patient(String patientID, String name, String concern, int priorityLevel) {
         this.patientID = patientID;
@@ -27,6 +30,11 @@ public class Patient implements Comparable<Patient> {
         return priorityLevel;
     }
 
+    // Only IndexedPatientQueue should call this for queued patients, so the queue order stays correct
+    public void setPriorityLevel(int priorityLevel) {
+        this.priorityLevel = priorityLevel;
+    }
+
     public String getConcern() {
         return concern;
     }
@@ -43,6 +51,15 @@ public class Patient implements Comparable<Patient> {
         return doctorID;
     }
 
+    // Null when the check-in time is unknown (e.g. data saved by older versions)
+    public LocalDateTime getCheckInTime() {
+        return checkInTime;
+    }
+
+    public void setCheckInTime(LocalDateTime checkInTime) {
+        this.checkInTime = checkInTime;
+    }
+
     @Override
     public int compareTo(Patient other) {
         return Integer.compare(this.priorityLevel, other.priorityLevel);    }
@@ -0,0 +1,83 @@
+package clinic.Models;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+public class TreatmentSession {
+
+    private final Patient patient;
+    private final Doctor doctor;
+    private final Room room;
+    private final LocalDateTime startTime;
+    private final Duration expectedDuration;
+    private boolean escalated = false;
+    private boolean resourcesReleased = false;
+
+    private static final DateTimeFormatter FORMATTER =
+            DateTimeFormatter.ofPattern("HH:mm");
+
+    public TreatmentSession(Patient patient, Doctor doctor, Room room,
+                            LocalDateTime startTime, Duration expectedDuration) {
+        this.patient = patient;
+        this.doctor = doctor;
+        this.room = room;
+        this.startTime = startTime;
+        this.expectedDuration = expectedDuration;
+    }
+
+    public Patient getPatient() {
+        return patient;
+    }
+
+    public Doctor getDoctor() {
+        return doctor;
+    }
+
+    public Room getRoom() {
+        return room;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public Duration getExpectedDuration() {
+        return expectedDuration;
+    }
+
+    public LocalDateTime getExpectedEnd() {
+        return startTime.plus(expectedDuration);
+    }
+
+    public boolean isEscalated() {
+        return escalated;
+    }
+
+    public void setEscalated(boolean escalated) {
+        this.escalated = escalated;
+    }
+
+    public boolean isResourcesReleased() {
+        return resourcesReleased;
+    }
+
+    public void setResourcesReleased(boolean resourcesReleased) {
+        this.resourcesReleased = resourcesReleased;
+    }
+
+    // Frees the doctor and room held by this session (only once)
+    public void releaseResources() {
+        if (resourcesReleased) return;
+        doctor.setInClinic(true);
+        room.setOccupied(false);
+        resourcesReleased = true;
+    }
+
+    @Override
+    public String toString() {
+        String status = resourcesReleased ? " [RELEASED]" : (escalated ? " [OVERDUE]" : "");
+        return patient.getName() + " with " + doctor.getName() + " in " + room.getType() +
+                " (" + startTime.format(FORMATTER) + " - " + getExpectedEnd().format(FORMATTER) + ")" + status;
+    }
+}
@@ -0,0 +1,79 @@
+package clinic;
+
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.Locale;
+
+/**
+ * Hash index from a patient's identity (normalized name plus an optional
+ * identifier such as date of birth or phone number) to their patient ID, so
+ * returning patients are checked in under the ID they already have.
+ */
+public class PatientIdentityIndex {
+
+    private final HashMap<String, String> idByKey = new HashMap<>();
+    private final HashMap<String, String> identifierById = new HashMap<>();
+
+    /**
+     * Records the identity of a patient. If another ID is already indexed
+     * under the same identity the existing entry is kept. Once a patient has
+     * an identifier they are no longer indexed under their name alone.
+     */
+    public void register(String patientID, String name, String identifier) {
+        if (identifier != null && !identifier.trim().isEmpty()) {
+            identifierById.put(patientID, identifier.trim());
+            idByKey.remove(key(name, ""), patientID);
+        }
+        idByKey.putIfAbsent(key(name, identifier), patientID);
+    }
+
+    /**
+     * Returns the indexed patient ID for this identity, or null for a new patient.
+     * If nobody matches the identifier, a patient registered under the same name
+     * without one is returned, since they may just not have given it before.
+     * A patient whose identifier differs is never returned.
+     */
+    public String find(String name, String identifier) {
+        String patientID = idByKey.get(key(name, identifier));
+        if (patientID == null && identifier != null && !identifier.trim().isEmpty()) {
+            patientID = idByKey.get(key(name, ""));
+            if (patientID != null && !getIdentifier(patientID).isEmpty()) {
+                patientID = null;
+            }
+        }
+        return patientID;
+    }
+
+    public String getIdentifier(String patientID) {
+        return identifierById.getOrDefault(patientID, "");
+    }
+
+    public void clear() {
+        idByKey.clear();
+        identifierById.clear();
+    }
+
+    /**
+     * Builds the lookup key. Names ignore case, accents and extra spaces;
+     * identifiers keep only letters and digits, so "0917-123 4567" and
+     * "09171234567" match.
+     */
+    public static String key(String name, String identifier) {
+        String folded = Normalizer.normalize(name == null ? "" : name, Normalizer.Form.NFKD)
+                .replaceAll("\\p{M}", "")
+                .trim()
+                .replaceAll("\\s+", " ")
+                .toLowerCase(Locale.ROOT);
+
+        StringBuilder key = new StringBuilder(folded).append('|');
+        if (identifier != null) {
+            for (int i = 0; i < identifier.length(); i++) {
+                char c = identifier.charAt(i);
+                if (Character.isLetterOrDigit(c)) {
+                    key.append(Character.toLowerCase(c));
+                }
+            }
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,126 @@
+package clinic.Scheduling;
+
+import java.util.function.Consumer;
+
+/**
+ * Hashed timer wheel used to track deadlines for many items at once.
+ * Scheduling and cancelling are O(1); advancing only visits the slots
+ * for the ticks that actually elapsed, so thousands of pending timeouts
+ * cost nothing until they are due.
+ */
+public class HashedTimerWheel<T> {
+
+    private final long tickMillis;
+    private final int mask;
+    private final Timeout<T>[] wheel;
+    private long currentTick;
+    private int pending;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimerWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive.");
+        }
+        if (wheelSize <= 0 || (wheelSize & (wheelSize - 1)) != 0) {
+            throw new IllegalArgumentException("Wheel size must be a power of two.");
+        }
+        this.tickMillis = tickMillis;
+        this.mask = wheelSize - 1;
+        this.wheel = (Timeout<T>[]) new Timeout<?>[wheelSize];
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    public Timeout<T> schedule(T item, long deadlineMillis) {
+        // Round up so an item never fires before its deadline
+        long deadlineTick = (deadlineMillis + tickMillis - 1) / tickMillis;
+        if (deadlineTick <= currentTick) {
+            deadlineTick = currentTick + 1;
+        }
+
+        Timeout<T> timeout = new Timeout<>(this, item, deadlineTick);
+        int slot = (int) (deadlineTick & mask);
+        timeout.next = wheel[slot];
+        if (wheel[slot] != null) {
+            wheel[slot].prev = timeout;
+        }
+        wheel[slot] = timeout;
+        pending++;
+        return timeout;
+    }
+
+    /**
+     * Moves the wheel forward to the given time and hands every expired
+     * item to the callback. The callback may schedule new timeouts.
+     */
+    public void advanceTo(long nowMillis, Consumer<T> onExpire) {
+        long targetTick = nowMillis / tickMillis;
+        if (targetTick <= currentTick) {
+            return;
+        }
+
+        // After a long gap every slot is visited once instead of once per tick
+        long ticksToVisit = Math.min(targetTick - currentTick, wheel.length);
+        long startTick = currentTick;
+        currentTick = targetTick;
+
+        for (long t = 1; t <= ticksToVisit; t++) {
+            int slot = (int) ((startTick + t) & mask);
+            Timeout<T> node = wheel[slot];
+            while (node != null) {
+                Timeout<T> next = node.next;
+                if (node.deadlineTick <= targetTick) {
+                    unlink(node, slot);
+                    onExpire.accept(node.item);
+                }
+                node = next;
+            }
+        }
+    }
+
+    public int size() {
+        return pending;
+    }
+
+    private void unlink(Timeout<T> node, int slot) {
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else {
+            wheel[slot] = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        node.prev = null;
+        node.next = null;
+        node.owner = null;
+        pending--;
+    }
+
+    public static final class Timeout<T> {
+        private HashedTimerWheel<T> owner;
+        private final T item;
+        private final long deadlineTick;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(HashedTimerWheel<T> owner, T item, long deadlineTick) {
+            this.owner = owner;
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        public boolean isPending() {
+            return owner != null;
+        }
+
+        public void cancel() {
+            if (owner != null) {
+                owner.unlink(this, (int) (deadlineTick & owner.mask));
+            }
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package clinic.Scheduling;
+
+import clinic.Models.Patient;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Waiting queue ordered by priority level (1 = most urgent), then by arrival.
+ * Patients are kept in a size-augmented treap with a hash index by patient
+ * ID, so cancel, re-triage and "position in queue" are all O(log n), and
+ * iteration yields patients in the order they will be dequeued.
+ */
+public class IndexedPatientQueue implements Iterable<Patient> {
+
+    private final HashMap<String, Node> index = new HashMap<>();
+    private Node root;
+    private long nextSequence = 0;
+
+    // Returns false if a patient with the same ID is already queued
+    public boolean add(Patient patient) {
+        if (index.containsKey(patient.getPatientID())) {
+            return false;
+        }
+        Node node = new Node(patient, patient.getPriorityLevel(), nextSequence++);
+        index.put(patient.getPatientID(), node);
+        root = insert(root, node);
+        return true;
+    }
+
+    public Patient peek() {
+        if (root == null) return null;
+        Node node = root;
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node.patient;
+    }
+
+    public Patient poll() {
+        Patient first = peek();
+        if (first != null) {
+            remove(first.getPatientID());
+        }
+        return first;
+    }
+
+    public Patient remove(String patientID) {
+        Node node = index.remove(patientID);
+        if (node == null) return null;
+        root = delete(root, node);
+        return node.patient;
+    }
+
+    /**
+     * Moves a queued patient to a new priority level. Arrival order is kept,
+     * so among equal priorities the patient stays ahead of later arrivals.
+     */
+    public boolean reprioritize(String patientID, int priorityLevel) {
+        Node node = index.get(patientID);
+        if (node == null) return false;
+
+        root = delete(root, node);
+        node.patient.setPriorityLevel(priorityLevel);
+        Node moved = new Node(node.patient, priorityLevel, node.sequence);
+        index.put(patientID, moved);
+        root = insert(root, moved);
+        return true;
+    }
+
+    // 1-based position in dequeue order, or -1 if the patient is not queued
+    public int positionOf(String patientID) {
+        Node target = index.get(patientID);
+        if (target == null) return -1;
+
+        int rank = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(target, node);
+            if (cmp < 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left);
+                if (cmp == 0) {
+                    return rank + 1;
+                }
+                rank++;
+                node = node.right;
+            }
+        }
+        throw new IllegalStateException("Queue index out of sync for " + patientID);
+    }
+
+    public Patient get(String patientID) {
+        Node node = index.get(patientID);
+        return node == null ? null : node.patient;
+    }
+
+    public boolean contains(String patientID) {
+        return index.containsKey(patientID);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public boolean isEmpty() {
+        return index.isEmpty();
+    }
+
+    // In-order walk of the treap: patients in dequeue order
+    @Override
+    public Iterator<Patient> iterator() {
+        return new Iterator<Patient>() {
+            private final ArrayDeque<Node> stack = new ArrayDeque<>();
+
+            {
+                pushLeft(root);
+            }
+
+            private void pushLeft(Node node) {
+                while (node != null) {
+                    stack.push(node);
+                    node = node.left;
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !stack.isEmpty();
+            }
+
+            @Override
+            public Patient next() {
+                if (stack.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                Node node = stack.pop();
+                pushLeft(node.right);
+                return node.patient;
+            }
+        };
+    }
+
+    // ------------------- TREAP OPERATIONS -------------------
+
+    private static int compare(Node a, Node b) {
+        if (a.priorityLevel != b.priorityLevel) {
+            return Integer.compare(a.priorityLevel, b.priorityLevel);
+        }
+        return Long.compare(a.sequence, b.sequence);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (added.heapKey > node.heapKey) {
+            Node[] parts = split(node, added);
+            added.left = parts[0];
+            added.right = parts[1];
+            update(added);
+            return added;
+        }
+        if (compare(added, node) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        update(node);
+        return node;
+    }
+
+    // Splits into nodes ordered before the key and nodes after it
+    private static Node[] split(Node node, Node key) {
+        if (node == null) {
+            return new Node[] {null, null};
+        }
+        if (compare(node, key) < 0) {
+            Node[] parts = split(node.right, key);
+            node.right = parts[0];
+            update(node);
+            return new Node[] {node, parts[1]};
+        }
+        Node[] parts = split(node.left, key);
+        node.left = parts[1];
+        update(node);
+        return new Node[] {parts[0], node};
+    }
+
+    private static Node delete(Node node, Node removed) {
+        if (node == null) {
+            return null;
+        }
+        if (node == removed) {
+            return merge(node.left, node.right);
+        }
+        if (compare(removed, node) < 0) {
+            node.left = delete(node.left, removed);
+        } else {
+            node.right = delete(node.right, removed);
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) return right;
+        if (right == null) return left;
+        if (left.heapKey > right.heapKey) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static final class Node {
+        private final Patient patient;
+        private final int priorityLevel;
+        private final long sequence;
+        private final int heapKey = ThreadLocalRandom.current().nextInt();
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(Patient patient, int priorityLevel, long sequence) {
+            this.patient = patient;
+            this.priorityLevel = priorityLevel;
+            this.sequence = sequence;
+        }
+    }
+}
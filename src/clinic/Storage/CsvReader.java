@@ -0,0 +1,276 @@
+package clinic.Storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Streaming RFC 4180 reader. Each record is unescaped into a reusable char
+ * buffer and its fields are kept as offsets into that buffer, so nothing is
+ * allocated per field unless the caller asks for a String.
+ */
+public class CsvReader implements Closeable {
+
+    private final Reader in;
+    private final char[] input = new char[8192];
+    private int inputPos = 0;
+    private int inputLimit = 0;
+    private boolean skipLineFeed = false;
+
+    private char[] record = new char[256];
+    private int recordLength = 0;
+    private int[] fieldEnds = new int[16];
+    private int fieldCount = 0;
+
+    private final Slice slice = new Slice();
+
+    public CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Reads the next record, returning false at end of input. Quoted fields
+     * may contain commas, doubled quotes and line breaks.
+     */
+    public boolean nextRecord() throws IOException {
+        recordLength = 0;
+        fieldCount = 0;
+
+        if (!fill()) {
+            return false;
+        }
+        if (skipLineFeed) {
+            // Second half of a CRLF that ended the previous record
+            skipLineFeed = false;
+            if (input[inputPos] == '\n') {
+                inputPos++;
+                if (!fill()) {
+                    return false;
+                }
+            }
+        }
+
+        int fieldStart = 0;
+        while (true) {
+            if (!fill()) {
+                endField();
+                return true;
+            }
+
+            if (input[inputPos] == '"' && recordLength == fieldStart) {
+                inputPos++;
+                readQuoted();
+                continue;
+            }
+
+            // Copy the run of ordinary characters up to the next delimiter in one go
+            int i = inputPos;
+            int limit = inputLimit;
+            char c = 0;
+            while (i < limit) {
+                c = input[i];
+                if (c == ',' || c == '\n' || c == '\r') break;
+                i++;
+            }
+            appendRun(inputPos, i);
+            inputPos = i;
+            if (i == limit) {
+                continue;
+            }
+
+            inputPos++;
+            endField();
+            if (c == ',') {
+                fieldStart = recordLength;
+            } else {
+                skipLineFeed = c == '\r';
+                return true;
+            }
+        }
+    }
+
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    // True for an empty or whitespace-only line
+    public boolean isBlank() {
+        if (fieldCount != 1) return false;
+        for (int i = 0; i < recordLength; i++) {
+            if (!Character.isWhitespace(record[i])) return false;
+        }
+        return true;
+    }
+
+    public String field(int index) {
+        int start = fieldStart(index);
+        return new String(record, start, fieldEnds[index] - start);
+    }
+
+    /**
+     * Returns a view of the field without copying it. The view is shared and
+     * only valid until the next call to this method or to nextRecord().
+     */
+    public CharSequence fieldSlice(int index) {
+        int start = fieldStart(index);
+        slice.set(start, fieldEnds[index]);
+        return slice;
+    }
+
+    public int intField(int index) {
+        long value = longField(index);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Number out of int range in field " + index);
+        }
+        return (int) value;
+    }
+
+    // Rejects values outside the long range instead of wrapping, like Long.parseLong
+    public long longField(int index) {
+        int start = fieldStart(index);
+        int end = fieldEnds[index];
+        if (start == end) {
+            throw new NumberFormatException("Empty field " + index);
+        }
+
+        boolean negative = record[start] == '-';
+        int i = negative || record[start] == '+' ? start + 1 : start;
+        if (i == end) {
+            throw new NumberFormatException("Invalid number in field " + index);
+        }
+
+        // Accumulate as a negative number so Long.MIN_VALUE is representable
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = record[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("Invalid number in field " + index);
+            }
+            if (value < (limit + digit) / 10) {
+                throw new NumberFormatException("Number out of range in field " + index);
+            }
+            value = value * 10 - digit;
+        }
+        return negative ? value : -value;
+    }
+
+    // Same rule as Boolean.parseBoolean: only "true" (any case) is true
+    public boolean booleanField(int index) {
+        int start = fieldStart(index);
+        if (fieldEnds[index] - start != 4) return false;
+        return (record[start] | 0x20) == 't' && (record[start + 1] | 0x20) == 'r'
+                && (record[start + 2] | 0x20) == 'u' && (record[start + 3] | 0x20) == 'e';
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private int fieldStart(int index) {
+        if (index < 0 || index >= fieldCount) {
+            throw new IndexOutOfBoundsException("Field " + index + " of " + fieldCount);
+        }
+        return index == 0 ? 0 : fieldEnds[index - 1];
+    }
+
+    private boolean fill() throws IOException {
+        if (inputPos < inputLimit) {
+            return true;
+        }
+        inputLimit = in.read(input, 0, input.length);
+        inputPos = 0;
+        if (inputLimit <= 0) {
+            inputLimit = 0;
+            return false;
+        }
+        return true;
+    }
+
+    // Reads the rest of a quoted field; the opening quote is already consumed
+    private void readQuoted() throws IOException {
+        while (fill()) {
+            int i = inputPos;
+            int limit = inputLimit;
+            while (i < limit && input[i] != '"') {
+                i++;
+            }
+            appendRun(inputPos, i);
+            inputPos = i;
+            if (i == limit) {
+                continue;
+            }
+
+            inputPos++;
+            if (!fill() || input[inputPos] != '"') {
+                return;
+            }
+            append('"');
+            inputPos++;
+        }
+    }
+
+    private void appendRun(int from, int to) {
+        int length = to - from;
+        if (length == 0) return;
+        ensureRecordCapacity(recordLength + length);
+        System.arraycopy(input, from, record, recordLength, length);
+        recordLength += length;
+    }
+
+    private void append(char c) {
+        ensureRecordCapacity(recordLength + 1);
+        record[recordLength++] = c;
+    }
+
+    private void ensureRecordCapacity(int capacity) {
+        if (capacity > record.length) {
+            char[] grown = new char[Math.max(record.length * 2, capacity)];
+            System.arraycopy(record, 0, grown, 0, recordLength);
+            record = grown;
+        }
+    }
+
+    private void endField() {
+        if (fieldCount == fieldEnds.length) {
+            int[] grown = new int[fieldEnds.length * 2];
+            System.arraycopy(fieldEnds, 0, grown, 0, fieldCount);
+            fieldEnds = grown;
+        }
+        fieldEnds[fieldCount++] = recordLength;
+    }
+
+    private final class Slice implements CharSequence {
+        private int start;
+        private int end;
+
+        private void set(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= end - start) {
+                throw new IndexOutOfBoundsException("Index " + index + " of " + (end - start));
+            }
+            return record[start + index];
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            return new String(record, start + from, to - from);
+        }
+
+        @Override
+        public String toString() {
+            return new String(record, start, end - start);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package clinic.Storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * RFC 4180 writer. Fields containing a comma, quote or line break are quoted
+ * with embedded quotes doubled, so everything CsvReader reads back is
+ * identical to what was written.
+ */
+public class CsvWriter implements Closeable {
+
+    private final Writer out;
+    private boolean firstField = true;
+
+    public CsvWriter(Writer out) {
+        this.out = out;
+    }
+
+    public CsvWriter field(String value) throws IOException {
+        separate();
+        if (value == null || value.isEmpty()) {
+            return this;
+        }
+        if (!needsQuoting(value)) {
+            out.write(value);
+            return this;
+        }
+
+        out.write('"');
+        int from = 0;
+        int quote;
+        while ((quote = value.indexOf('"', from)) != -1) {
+            out.write(value, from, quote + 1 - from);
+            out.write('"');
+            from = quote + 1;
+        }
+        out.write(value, from, value.length() - from);
+        out.write('"');
+        return this;
+    }
+
+    public CsvWriter field(long value) throws IOException {
+        separate();
+        out.write(Long.toString(value));
+        return this;
+    }
+
+    public CsvWriter field(boolean value) throws IOException {
+        separate();
+        out.write(value ? "true" : "false");
+        return this;
+    }
+
+    // Ends the current record; with no fields written this emits a blank line
+    public void endRecord() throws IOException {
+        out.write('\n');
+        firstField = true;
+    }
+
+    public void record(String... values) throws IOException {
+        for (String value : values) {
+            field(value);
+        }
+        endRecord();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void separate() throws IOException {
+        if (!firstField) {
+            out.write(',');
+        }
+        firstField = false;
+    }
+
+    private static boolean needsQuoting(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,190 @@
+package clinic.Storage;
+
+import clinic.Models.ClinicHistoryRecord;
+import clinic.Models.Patient;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams clinic data out as newline-delimited JSON, one object per line
+ * with a "type" of patient, queue or history. Each line is encoded straight
+ * into a fixed-size buffer that is drained to a file channel, so memory use
+ * does not grow with the number of records exported.
+ */
+public class NdjsonExporter implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int GZIP_BUFFER_SIZE = 1 << 16;
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final FileChannel file;
+    private final WritableByteChannel out;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final StringBuilder line = new StringBuilder(256);
+    private long recordsWritten = 0;
+    private LocalDateTime latestHistoryTime;
+
+    // Output is gzip-compressed when the file name ends in ".gz"
+    public NdjsonExporter(Path path) throws IOException {
+        this.file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        if (isGzip(path)) {
+            this.out = Channels.newChannel(new GZIPOutputStream(Channels.newOutputStream(file), GZIP_BUFFER_SIZE));
+        } else {
+            this.out = file;
+        }
+    }
+
+    public static boolean isGzip(Path path) {
+        return path.getFileName().toString().endsWith(".gz");
+    }
+
+    public void writePatient(String patientID, String name, String identifier) throws IOException {
+        line.append("{\"type\":\"patient\",\"id\":");
+        appendString(patientID);
+        line.append(",\"name\":");
+        appendString(name);
+        line.append(",\"identifier\":");
+        appendString(identifier);
+        endLine();
+    }
+
+    public void writeQueued(Patient patient) throws IOException {
+        line.append("{\"type\":\"queue\",\"id\":");
+        appendString(patient.getPatientID());
+        line.append(",\"name\":");
+        appendString(patient.getName());
+        line.append(",\"concern\":");
+        appendString(patient.getConcern());
+        line.append(",\"priority\":").append(patient.getPriorityLevel());
+        line.append(",\"doctorId\":");
+        appendString(patient.getDoctorID());
+        line.append(",\"checkInTime\":");
+        appendTime(patient.getCheckInTime());
+        endLine();
+    }
+
+    public void writeHistory(String patientID, ClinicHistoryRecord record) throws IOException {
+        line.append("{\"type\":\"history\",\"patientId\":");
+        appendString(patientID);
+        line.append(",\"dateTime\":");
+        appendTime(record.getDateTime());
+        line.append(",\"doctor\":");
+        appendString(record.getDoctorName());
+        line.append(",\"diagnosis\":");
+        appendString(record.getDiagnosis());
+        line.append(",\"treatment\":");
+        appendString(record.getTreatment());
+        line.append(",\"priority\":").append(record.getPriorityLevel());
+        line.append(",\"waitMinutes\":").append(record.getWaitMinutes());
+        endLine();
+
+        if (latestHistoryTime == null || record.getDateTime().isAfter(latestHistoryTime)) {
+            latestHistoryTime = record.getDateTime();
+        }
+    }
+
+    public long getRecordsWritten() {
+        return recordsWritten;
+    }
+
+    // Newest history timestamp written; the next incremental export starts from it (inclusive)
+    public LocalDateTime getLatestHistoryTime() {
+        return latestHistoryTime;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+            out.close();
+        } finally {
+            file.close();
+        }
+    }
+
+    private void appendTime(LocalDateTime time) {
+        if (time == null) {
+            line.append("null");
+        } else {
+            line.append('"');
+            FORMATTER.formatTo(time, line);
+            line.append('"');
+        }
+    }
+
+    private void appendString(String value) {
+        if (value == null) {
+            line.append("null");
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': line.append("\\\""); break;
+                case '\\': line.append("\\\\"); break;
+                case '\n': line.append("\\n"); break;
+                case '\r': line.append("\\r"); break;
+                case '\t': line.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+            }
+        }
+        line.append('"');
+    }
+
+    // Encodes the pending line as UTF-8 into the output buffer
+    private void endLine() throws IOException {
+        line.append("}\n");
+        for (int i = 0; i < line.length(); i++) {
+            if (buffer.remaining() < 4) {
+                drain();
+            }
+            char c = line.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < line.length()
+                    && Character.isLowSurrogate(line.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, line.charAt(++i));
+                buffer.put((byte) (0xF0 | (cp >> 18)));
+                buffer.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (cp & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        line.setLength(0);
+        recordsWritten++;
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+}
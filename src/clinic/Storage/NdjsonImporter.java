@@ -0,0 +1,228 @@
+package clinic.Storage;
+
+import clinic.Models.ClinicHistoryRecord;
+import clinic.Models.Patient;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads files written by NdjsonExporter one line at a time and hands each
+ * record to a Listener, so only the current line is held in memory.
+ */
+public class NdjsonImporter {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int GZIP_BUFFER_SIZE = 1 << 16;
+    private static final int MAX_PRIORITY = 5;
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    public interface Listener {
+        void onPatient(String patientID, String name, String identifier);
+
+        void onQueued(Patient patient);
+
+        void onHistory(String patientID, ClinicHistoryRecord record);
+    }
+
+    private final HashMap<String, String> fields = new HashMap<>();
+    private String line;
+    private int pos;
+
+    // Returns the number of records read; unknown record types are skipped
+    public long importFrom(Path path, Listener listener) throws IOException {
+        long records = 0;
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            InputStream in = Channels.newInputStream(file);
+            if (NdjsonExporter.isGzip(path)) {
+                in = new GZIPInputStream(in, GZIP_BUFFER_SIZE);
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    parseLine();
+                    if (dispatch(listener)) {
+                        records++;
+                    }
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    throw new IOException("Line " + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return records;
+    }
+
+    // Missing required fields throw IllegalArgumentException, reported as "Line N: ..."
+    private boolean dispatch(Listener listener) {
+        String type = fields.get("type");
+        if ("patient".equals(type)) {
+            listener.onPatient(required(type, "id"), required(type, "name"), fields.get("identifier"));
+            return true;
+        }
+        if ("queue".equals(type)) {
+            String concern = fields.get("concern");
+            String doctorID = fields.get("doctorId");
+            Patient patient = new Patient(required(type, "id"), required(type, "name"),
+                    concern == null ? "" : concern, priority(type, required(type, "priority"), 1));
+            patient.setDoctorID(doctorID == null ? "N/A" : doctorID);
+            patient.setCheckInTime(parseTime(fields.get("checkInTime")));
+            listener.onQueued(patient);
+            return true;
+        }
+        if ("history".equals(type)) {
+            String priority = fields.get("priority");
+            String wait = fields.get("waitMinutes");
+            listener.onHistory(required(type, "patientId"), new ClinicHistoryRecord(
+                    parseTime(required(type, "dateTime")), required(type, "doctor"),
+                    required(type, "diagnosis"), required(type, "treatment"),
+                    priority == null ? 0 : priority(type, priority, 0),
+                    wait == null ? -1 : Long.parseLong(wait)));
+            return true;
+        }
+        return false;
+    }
+
+    private String required(String type, String key) {
+        String value = fields.get(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing required field '" + key + "' for " + type + " record");
+        }
+        return value;
+    }
+
+    // Priorities run from 1 (urgent) to 5; history may also hold 0 for unknown
+    private static int priority(String type, String value, int min) {
+        int priority = Integer.parseInt(value);
+        if (priority < min || priority > MAX_PRIORITY) {
+            throw new IllegalArgumentException("Priority " + priority + " out of range " + min + "-"
+                    + MAX_PRIORITY + " for " + type + " record");
+        }
+        return priority;
+    }
+
+    private static LocalDateTime parseTime(String value) {
+        return value == null ? null : LocalDateTime.parse(value, FORMATTER);
+    }
+
+    // Parses one flat JSON object of string, number, boolean or null values into fields
+    private void parseLine() {
+        fields.clear();
+        pos = 0;
+        skipWhitespace();
+        expect('{');
+        skipWhitespace();
+        if (peek() == '}') {
+            return;
+        }
+        while (true) {
+            skipWhitespace();
+            String key = readString();
+            skipWhitespace();
+            expect(':');
+            skipWhitespace();
+            fields.put(key, readValue());
+            skipWhitespace();
+            char c = next();
+            if (c == '}') {
+                return;
+            }
+            if (c != ',') {
+                throw new IllegalArgumentException("Expected ',' or '}' at column " + pos);
+            }
+        }
+    }
+
+    private String readValue() {
+        char c = peek();
+        if (c == '"') {
+            return readString();
+        }
+        int start = pos;
+        while (pos < line.length() && ",} \t".indexOf(line.charAt(pos)) < 0) {
+            pos++;
+        }
+        String literal = line.substring(start, pos);
+        if (literal.isEmpty()) {
+            throw new IllegalArgumentException("Missing value at column " + start);
+        }
+        return literal.equals("null") ? null : literal;
+    }
+
+    private String readString() {
+        expect('"');
+        StringBuilder sb = new StringBuilder();
+        while (true) {
+            char c = next();
+            if (c == '"') {
+                return sb.toString();
+            }
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            char e = next();
+            switch (e) {
+                case '"': sb.append('"'); break;
+                case '\\': sb.append('\\'); break;
+                case '/': sb.append('/'); break;
+                case 'b': sb.append('\b'); break;
+                case 'f': sb.append('\f'); break;
+                case 'n': sb.append('\n'); break;
+                case 'r': sb.append('\r'); break;
+                case 't': sb.append('\t'); break;
+                case 'u':
+                    if (pos + 4 > line.length()) {
+                        throw new IllegalArgumentException("Truncated escape at column " + pos);
+                    }
+                    sb.append((char) Integer.parseInt(line.substring(pos, pos + 4), 16));
+                    pos += 4;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Invalid escape at column " + pos);
+            }
+        }
+    }
+
+    private void skipWhitespace() {
+        while (pos < line.length() && Character.isWhitespace(line.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private char peek() {
+        if (pos >= line.length()) {
+            throw new IllegalArgumentException("Unexpected end of line");
+        }
+        return line.charAt(pos);
+    }
+
+    private char next() {
+        char c = peek();
+        pos++;
+        return c;
+    }
+
+    private void expect(char expected) {
+        if (next() != expected) {
+            throw new IllegalArgumentException("Expected '" + expected + "' at column " + pos);
+        }
+    }
+}
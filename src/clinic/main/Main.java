@@ -12,6 +12,7 @@ public class Main {
         System.out.println("\nWelcome to the Clinic Management System");
 
         while (running) {
+            cms.processOverdueSessions();
             displayMenu();
             System.out.print("Enter choice: ");
             String choiceStr = scanner.nextLine();
@@ -35,11 +36,20 @@ public class Main {
                         runSetupProcedures(cms, scanner);
                         break;
                     case 6:
+                        cms.completeTreatment(scanner);
+                        break;
+                    case 7:
+                        runQueueManagement(cms, scanner);
+                        break;
+                    case 8:
+                        cms.viewAnalytics(scanner);
+                        break;
+                    case 9:
                         cms.exitAndSave();
                         running = false;
                         break;
                     default:
-                        System.out.println("Invalid choice. Please enter a number between 1 and 6.");
+                        System.out.println("Invalid choice. Please enter a number between 1 and 9.");
                 }
             } catch (NumberFormatException e) {
                 System.out.println("Invalid input. Please enter a number.");
@@ -55,10 +65,52 @@ public class Main {
         System.out.println("[3] View Patient History");
         System.out.println("[4] Doctor List");
         System.out.println("[5] Setup Procedures");
-        System.out.println("[6] Exit Program");
+        System.out.println("[6] Complete Treatment");
+        System.out.println("[7] Manage Queue");
+        System.out.println("[8] Clinic Analytics");
+        System.out.println("[9] Exit Program");
         System.out.println("==============================");
     }
 
+    private static void runQueueManagement(ClinicManagementSystem cms, Scanner scanner) {
+        boolean inQueue = true;
+        while (inQueue) {
+            System.out.println("\n==== Manage Queue ===");
+            System.out.println("[1] View Queue");
+            System.out.println("[2] Find Patient Position");
+            System.out.println("[3] Cancel Appointment");
+            System.out.println("[4] Re-triage Patient");
+            System.out.println("[5] Back to Main Menu");
+            System.out.println("=====================");
+            System.out.print("Enter choice: ");
+
+            try {
+                int choice = Integer.parseInt(scanner.nextLine());
+                switch (choice) {
+                    case 1:
+                        cms.viewQueue(scanner);
+                        break;
+                    case 2:
+                        cms.findQueuePosition(scanner);
+                        break;
+                    case 3:
+                        cms.cancelQueuedPatient(scanner);
+                        break;
+                    case 4:
+                        cms.retriagePatient(scanner);
+                        break;
+                    case 5:
+                        inQueue = false;
+                        break;
+                    default:
+                        System.out.println("Invalid choice.");
+                }
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid input.");
+            }
+        }
+    }
+
     private static void runSetupProcedures(ClinicManagementSystem cms, Scanner scanner) {
         boolean inSetup = true;
         while (inSetup) {
@@ -67,7 +119,10 @@ public class Main {
             System.out.println("[2] Remove Existing Doctor");
             System.out.println("[3] Add New Room");
             System.out.println("[4] Remove Existing Room");
-            System.out.println("[5] Back to Main Menu");
+            System.out.println("[5] Export Data (NDJSON)");
+            System.out.println("[6] Import Data (NDJSON)");
+            System.out.println("[7] Merge Duplicate Patient Records");
+            System.out.println("[8] Back to Main Menu");
             System.out.println("=========================");
             System.out.print("Enter choice: ");
 
@@ -87,6 +142,15 @@ public class Main {
                         cms.removeRoom(scanner);
                         break;
                     case 5:
+                        cms.exportData(scanner);
+                        break;
+                    case 6:
+                        cms.importData(scanner);
+                        break;
+                    case 7:
+                        cms.mergeDuplicatePatients(scanner);
+                        break;
+                    case 8:
                         inSetup = false;
                         break;
                     default: